@@ -0,0 +1,88 @@
+package com.yourbank.benchmarks;
+
+import com.yourbank.model.Account;
+import com.yourbank.model.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * {@code AccountManager.deposit} and {@code withdraw} on random accounts. Both go through the group-commit
+ * coordinator; a non-zero {@code groupCommitWindowMillis} only pays off with several threads ({@code -t}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DepositBenchmark {
+
+    private static final Money AMOUNT = Money.ofMinor(1);
+
+    @Param({"off"})
+    public String wal;
+
+    @Param({"1000"})
+    public int accounts;
+
+    @Param({"0"})
+    public int groupCommitWindowMillis;
+
+    private LedgerFixture fixture;
+    private Account[] opened;
+
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        // Read when the AccountManager is built, so it has to be in place before the fixture.
+        System.setProperty("LEDGER_GROUP_COMMIT_WINDOW_MS", String.valueOf(groupCommitWindowMillis));
+        fixture = LedgerFixture.open(wal);
+        opened = fixture.createAccounts(accounts);
+        for (Account account : opened) {
+            fixture.manager().deposit(account, Money.ofMinor(1_000_000_000L));
+        }
+    }
+
+
+    @TearDown(Level.Iteration)
+    public void trimLedger() throws Exception {
+        fixture.trimLedger();
+    }
+
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        fixture.close();
+    }
+
+
+    @Benchmark
+    public Money deposit() throws Exception {
+        Account account = opened[ThreadLocalRandom.current().nextInt(opened.length)];
+        fixture.manager().deposit(account, AMOUNT);
+        return account.getBalance();
+    }
+
+
+    @Benchmark
+    public Money withdraw() throws Exception {
+        Account account = opened[ThreadLocalRandom.current().nextInt(opened.length)];
+        fixture.manager().withdraw(account, AMOUNT);
+        return account.getBalance();
+    }
+}
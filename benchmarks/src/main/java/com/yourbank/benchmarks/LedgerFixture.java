@@ -0,0 +1,103 @@
+package com.yourbank.benchmarks;
+
+import com.yourbank.dao.memory.MemoryStorageEngine;
+import com.yourbank.model.Account;
+import com.yourbank.service.AccountManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+
+/**
+ * An in-memory engine and an {@link AccountManager} on top of it, the way the benchmarks set them up.
+ *
+ * <p>{@code wal} picks the durability: {@code off} keeps everything in memory, {@code async} writes a
+ * write-ahead log to a temporary directory without waiting for the fsync, and {@code sync} waits for it
+ * on every commit.
+ */
+final class LedgerFixture implements AutoCloseable {
+
+    static final String PASSWORD = "Benchm4rk!pass";
+
+    private final MemoryStorageEngine engine;
+    private final AccountManager manager;
+    private final Path walDirectory;
+
+
+    private LedgerFixture(MemoryStorageEngine engine, Path walDirectory) {
+        this.engine = engine;
+        this.manager = new AccountManager(engine);
+        this.walDirectory = walDirectory;
+    }
+
+
+    static LedgerFixture open(String wal) throws IOException {
+        return switch (wal) {
+            case "off" -> new LedgerFixture(new MemoryStorageEngine(null, false, 0), null);
+            case "async", "sync" -> {
+                Path directory = Files.createTempDirectory("ledger-bench");
+                yield new LedgerFixture(new MemoryStorageEngine(directory, wal.equals("sync"), 0), directory);
+            }
+            default -> throw new IllegalArgumentException("Unknown wal mode '" + wal + "'. Use off, async or sync.");
+        };
+    }
+
+
+    MemoryStorageEngine engine() {
+        return engine;
+    }
+
+
+    AccountManager manager() {
+        return manager;
+    }
+
+
+    /** Opens {@code count} accounts through the service, each with {@link #PASSWORD}. */
+    Account[] createAccounts(int count) throws Exception {
+        Account[] accounts = new Account[count];
+        for (int i = 0; i < count; i++) {
+            accounts[i] = manager.createAccount(
+                    "Bench Holder " + i,
+                    "holder" + i + "@example.com",
+                    PASSWORD,
+                    String.valueOf(9000000000L + i),
+                    i + " Benchmark Road",
+                    "ABCDE1234F",
+                    String.valueOf(100000000000L + i),
+                    "SBIN0001234",
+                    Account.AccountType.SAVINGS,
+                    Account.SecurityLevel.STANDARD
+            );
+        }
+        return accounts;
+    }
+
+
+    /** Drops the ledger rows written so far, so a long run does not keep growing the heap. */
+    void trimLedger() throws SQLException {
+        LocalDateTime cutoff = LocalDateTime.now();
+        int batch;
+        do {
+            batch = engine.transactions().deleteTransactionsBetween(null, cutoff, 100_000);
+        } while (batch > 0);
+    }
+
+
+    @Override
+    public void close() throws IOException {
+        engine.close();
+        if (walDirectory != null) {
+            try (Stream<Path> files = Files.walk(walDirectory)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+}
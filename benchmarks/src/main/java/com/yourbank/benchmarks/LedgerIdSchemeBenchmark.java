@@ -0,0 +1,155 @@
+package com.yourbank.benchmarks;
+
+import com.yourbank.util.DatabaseUtil;
+import com.yourbank.util.TransactionIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Ledger inserts into MySQL with the old and the new transaction ID: {@code v4} is a random UUID stored as
+ * 36 characters (the original schema), {@code v7} a time-ordered UUID stored as {@code BINARY(16)}. Each run
+ * uses a scratch table with the ledger's columns and secondary indexes, and prints its data and index size
+ * from {@code information_schema} at the end, since InnoDB copies the primary key into every secondary index.
+ *
+ * <p>Needs a MySQL database and is left out of a full run. Run it by name with the connection settings, e.g.
+ * {@code java -jar benchmarks.jar LedgerIdScheme -jvmArgsAppend "-DDB_URL=jdbc:mysql://localhost/bench
+ * -DDB_USER=bench -DDB_PASSWORD=..."}. The scratch tables are dropped afterwards.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class LedgerIdSchemeBenchmark {
+
+    private static final int ACCOUNTS = 1000;
+
+
+    @State(Scope.Benchmark)
+    public static class Ledger {
+
+        @Param({"v7", "v4"})
+        public String idScheme;
+
+        @Param({"64"})
+        public int batchSize;
+
+        @Param({"1000000"})
+        public int preloadRows;
+
+        String table;
+        private Connection connection;
+        private PreparedStatement insert;
+
+
+        @Setup(Level.Trial)
+        public void setUp() throws SQLException {
+            String url = DatabaseUtil.getProperty("DB_URL");
+            if (url == null || url.isBlank()) {
+                throw new IllegalStateException("LedgerIdSchemeBenchmark needs a MySQL database: pass -DDB_URL, "
+                        + "-DDB_USER and -DDB_PASSWORD with -jvmArgsAppend.");
+            }
+            connection = DriverManager.getConnection(url, DatabaseUtil.getProperty("DB_USER"),
+                    DatabaseUtil.getProperty("DB_PASSWORD"));
+            table = "bench_transactions_" + idScheme;
+
+            String idColumn = switch (idScheme) {
+                case "v4" -> "VARCHAR(36)";
+                case "v7" -> "BINARY(16)";
+                default -> throw new IllegalArgumentException("Unknown idScheme '" + idScheme + "'. Use v4 or v7.");
+            };
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP TABLE IF EXISTS " + table);
+                statement.execute("CREATE TABLE " + table + " (" +
+                        "tx_id " + idColumn + " NOT NULL, " +
+                        "tx_type VARCHAR(10) NOT NULL, " +
+                        "amount DECIMAL(15,2) NOT NULL, " +
+                        "from_account_number VARCHAR(12), " +
+                        "to_account_number VARCHAR(12), " +
+                        "created_at DATETIME(6) NOT NULL, " +
+                        "PRIMARY KEY (tx_id), " +
+                        "INDEX idx_from_created (from_account_number, created_at), " +
+                        "INDEX idx_to_created (to_account_number, created_at)" +
+                        ") ENGINE=InnoDB");
+            }
+
+            connection.setAutoCommit(false);
+            insert = connection.prepareStatement("INSERT INTO " + table +
+                    " (tx_id, tx_type, amount, from_account_number, to_account_number, created_at)" +
+                    " VALUES (?, 'TRANSFER', ?, ?, ?, ?)");
+
+            // Start from a table big enough that the primary key no longer fits in a handful of pages.
+            for (int loaded = 0; loaded < preloadRows; loaded += 1000) {
+                insertBatch(Math.min(1000, preloadRows - loaded));
+            }
+        }
+
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws SQLException {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE TABLE " + table);
+                try (ResultSet rs = statement.executeQuery("SELECT TABLE_ROWS, DATA_LENGTH, INDEX_LENGTH" +
+                        " FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = '" + table + "'")) {
+                    if (rs.next()) {
+                        System.out.printf("%n%s: about %d rows, primary key and rows %.1f MiB, secondary indexes %.1f MiB%n",
+                                idScheme, rs.getLong(1), rs.getLong(2) / 1048576.0, rs.getLong(3) / 1048576.0);
+                    }
+                }
+                statement.execute("DROP TABLE " + table);
+            } finally {
+                connection.close();
+            }
+        }
+
+
+        void insertBatch(int rows) throws SQLException {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < rows; i++) {
+                if (idScheme.equals("v4")) {
+                    insert.setString(1, UUID.randomUUID().toString());
+                } else {
+                    insert.setBytes(1, TransactionIdGenerator.toBytes(TransactionIdGenerator.next()));
+                }
+                insert.setBigDecimal(2, BigDecimal.valueOf(random.nextLong(1, 100_000), 2));
+                insert.setString(3, String.valueOf(100000000000L + random.nextInt(ACCOUNTS)));
+                insert.setString(4, String.valueOf(100000000000L + random.nextInt(ACCOUNTS)));
+                insert.setObject(5, now);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+    }
+
+
+    @Benchmark
+    public void insertBatch(Ledger ledger) throws SQLException {
+        ledger.insertBatch(ledger.batchSize);
+    }
+}
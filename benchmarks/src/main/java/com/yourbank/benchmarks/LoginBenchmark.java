@@ -0,0 +1,58 @@
+package com.yourbank.benchmarks;
+
+import com.yourbank.model.Account;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * {@code AccountManager.login} with the right password, which is dominated by the BCrypt check at
+ * {@code bcryptCost}. The cost is fixed once per JVM, so this must run forked (the default).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoginBenchmark {
+
+    @Param({"4", "10"})
+    public int bcryptCost;
+
+    private LedgerFixture fixture;
+    private String accountNumber;
+
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        System.setProperty("BCRYPT_COST", String.valueOf(bcryptCost));
+        fixture = LedgerFixture.open("off");
+        accountNumber = fixture.createAccounts(1)[0].getAccountNumber();
+    }
+
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        fixture.close();
+    }
+
+
+    @Benchmark
+    public Account login() throws Exception {
+        return fixture.manager().login(accountNumber, LedgerFixture.PASSWORD);
+    }
+}
@@ -0,0 +1,59 @@
+package com.yourbank.benchmarks;
+
+import com.yourbank.model.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * The arithmetic of one transfer (funds check, debit, credit) with {@link Money} and with the
+ * {@code BigDecimal} it replaced. Run with {@code -prof gc} to compare allocation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoneyBenchmark {
+
+    private Money sourceMoney = Money.parse("125000.75");
+    private Money targetMoney = Money.parse("310.20");
+    private Money amountMoney = Money.parse("42.35");
+
+    private BigDecimal sourceDecimal = new BigDecimal("125000.75");
+    private BigDecimal targetDecimal = new BigDecimal("310.20");
+    private BigDecimal amountDecimal = new BigDecimal("42.35");
+
+
+    @Benchmark
+    public Money money() {
+        if (sourceMoney.isLessThan(amountMoney)) {
+            return sourceMoney;
+        }
+        Money debited = sourceMoney.minus(amountMoney);
+        Money credited = targetMoney.plus(amountMoney);
+        return debited.plus(credited);
+    }
+
+
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        if (sourceDecimal.compareTo(amountDecimal) < 0) {
+            return sourceDecimal;
+        }
+        BigDecimal debited = sourceDecimal.subtract(amountDecimal);
+        BigDecimal credited = targetDecimal.add(amountDecimal);
+        return debited.add(credited);
+    }
+}
@@ -0,0 +1,173 @@
+package com.yourbank.benchmarks;
+
+import com.yourbank.dao.TransactionDao;
+import com.yourbank.model.Money;
+import com.yourbank.model.TransactionRecord;
+import com.yourbank.model.TransactionRecord.TxType;
+import com.yourbank.util.TransactionIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Ledger writes and history reads straight against the engine's {@link TransactionDao}, below the service layer.
+ * Reads run over {@code historyEntries} rows spread evenly across {@value #ACCOUNTS} accounts.
+ *
+ * <p>{@code idScheme} picks the transaction IDs written: {@code v7} from {@link TransactionIdGenerator},
+ * {@code v4} random UUIDs as before it. The in-memory engine orders entries by time first, so this mostly
+ * shows the cost of generating the ID; {@link LedgerIdSchemeBenchmark} measures the effect on MySQL's indexes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionDaoBenchmark {
+
+    private static final int ACCOUNTS = 100;
+    private static final int PAGE_SIZE = 20;
+    private static final Money AMOUNT = Money.ofMinor(2500);
+
+
+    @State(Scope.Benchmark)
+    public static class EmptyLedger {
+
+        @Param({"off"})
+        public String wal;
+
+        @Param({"64"})
+        public int batchSize;
+
+        @Param({"v7", "v4"})
+        public String idScheme;
+
+        LedgerFixture fixture;
+        TransactionDao dao;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            fixture = LedgerFixture.open(wal);
+            dao = fixture.engine().transactions();
+        }
+
+        @TearDown(Level.Iteration)
+        public void trimLedger() throws Exception {
+            fixture.trimLedger();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws Exception {
+            fixture.close();
+        }
+    }
+
+
+    @State(Scope.Benchmark)
+    public static class History {
+
+        @Param({"100000"})
+        public int historyEntries;
+
+        LedgerFixture fixture;
+        TransactionDao dao;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            fixture = LedgerFixture.open("off");
+            dao = fixture.engine().transactions();
+
+            LocalDateTime start = LocalDateTime.now().minusSeconds(historyEntries);
+            List<TransactionRecord> batch = new ArrayList<>(1000);
+            for (int i = 0; i < historyEntries; i++) {
+                batch.add(newRecord(TransactionIdGenerator.next(), i, start.plusSeconds(i)));
+                if (batch.size() == 1000) {
+                    dao.createTransactions(batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                dao.createTransactions(batch);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws Exception {
+            fixture.close();
+        }
+    }
+
+
+    @Benchmark
+    public void insert(EmptyLedger ledger) throws Exception {
+        ledger.dao.createTransaction(newRecord(nextId(ledger.idScheme), ThreadLocalRandom.current().nextInt(ACCOUNTS),
+                LocalDateTime.now()));
+    }
+
+
+    @Benchmark
+    public void insertBatch(EmptyLedger ledger) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDateTime now = LocalDateTime.now();
+        List<TransactionRecord> batch = new ArrayList<>(ledger.batchSize);
+        for (int i = 0; i < ledger.batchSize; i++) {
+            batch.add(newRecord(nextId(ledger.idScheme), random.nextInt(ACCOUNTS), now));
+        }
+        ledger.dao.createTransactions(batch);
+    }
+
+
+    @Benchmark
+    public List<TransactionRecord> historyPage(History history) throws Exception {
+        return history.dao.findTransactionsForAccount(accountNumber(ThreadLocalRandom.current().nextInt(ACCOUNTS)),
+                null, PAGE_SIZE);
+    }
+
+
+    @Benchmark
+    public List<TransactionRecord> miniStatement(History history) throws Exception {
+        return history.dao.findMiniStatement(accountNumber(ThreadLocalRandom.current().nextInt(ACCOUNTS)), 10);
+    }
+
+
+    @Benchmark
+    public void streamAccountHistory(History history, Blackhole blackhole) throws Exception {
+        history.dao.streamTransactionsForAccount(accountNumber(ThreadLocalRandom.current().nextInt(ACCOUNTS)),
+                blackhole::consume);
+    }
+
+
+    // Transfers from account i to the next one, so every account appears on both sides of the ledger.
+    private static TransactionRecord newRecord(UUID txId, int i, LocalDateTime createdAt) {
+        return new TransactionRecord(txId, TxType.TRANSFER, AMOUNT,
+                accountNumber(i % ACCOUNTS), accountNumber((i + 1) % ACCOUNTS), createdAt);
+    }
+
+
+    private static UUID nextId(String idScheme) {
+        return idScheme.equals("v4") ? UUID.randomUUID() : TransactionIdGenerator.next();
+    }
+
+
+    private static String accountNumber(int i) {
+        return String.valueOf(100000000000L + i);
+    }
+}
@@ -0,0 +1,83 @@
+package com.yourbank.benchmarks;
+
+import com.yourbank.model.Account;
+import com.yourbank.model.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * {@code AccountManager.transfer} between random pairs of accounts: row locking, balance check, debit,
+ * credit and the ledger row, in one transaction. Run with {@code -t} for contention and {@code -prof gc}
+ * for allocation per transfer.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransferBenchmark {
+
+    private static final Money AMOUNT = Money.ofMinor(1);
+
+    @Param({"off"})
+    public String wal;
+
+    @Param({"1000"})
+    public int accounts;
+
+    private LedgerFixture fixture;
+    private Account[] opened;
+
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        fixture = LedgerFixture.open(wal);
+        opened = fixture.createAccounts(accounts);
+        // Far more than a run can move, so no transfer fails for lack of funds.
+        for (Account account : opened) {
+            fixture.manager().deposit(account, Money.ofMinor(1_000_000_000L));
+        }
+    }
+
+
+    @TearDown(Level.Iteration)
+    public void trimLedger() throws Exception {
+        fixture.trimLedger();
+    }
+
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        fixture.close();
+    }
+
+
+    @Benchmark
+    public Money transfer() throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(opened.length);
+        int to = random.nextInt(opened.length - 1);
+        if (to >= from) {
+            to++;
+        }
+        Account source = opened[from];
+        fixture.manager().transfer(source, opened[to].getAccountNumber(), AMOUNT);
+        return source.getBalance();
+    }
+}
@@ -0,0 +1,78 @@
+package com.yourbank.benchmarks;
+
+import com.yourbank.util.ValidationUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * The {@link ValidationUtil} checks that run on every account opening and transfer, each with valid input.
+ * The inputs are fields rather than constants so the JIT cannot fold the checks away.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidationBenchmark {
+
+    private String email = "holder.name@example.com";
+    private String pan = "ABCDE1234F";
+    private String ifsc = "SBIN0001234";
+    private String aadhar = "123456789012";
+    private String phone = "9876543210";
+    private String password = "Benchm4rk!pass";
+    private String accountNumber = "10000000123" + ValidationUtil.luhnCheckDigit("10000000123");
+
+
+    @Benchmark
+    public boolean email() {
+        return ValidationUtil.isValidEmail(email);
+    }
+
+
+    @Benchmark
+    public boolean pan() {
+        return ValidationUtil.isValidPan(pan);
+    }
+
+
+    @Benchmark
+    public boolean ifsc() {
+        return ValidationUtil.isValidIfsc(ifsc);
+    }
+
+
+    @Benchmark
+    public boolean aadhar() {
+        return ValidationUtil.isValidAadhar(aadhar);
+    }
+
+
+    @Benchmark
+    public boolean phone() {
+        return ValidationUtil.isValidPhoneNumber(phone);
+    }
+
+
+    @Benchmark
+    public boolean password() {
+        return ValidationUtil.isValidPassword(password);
+    }
+
+
+    @Benchmark
+    public boolean accountNumber() {
+        return ValidationUtil.isValidAccountNumber(accountNumber);
+    }
+}
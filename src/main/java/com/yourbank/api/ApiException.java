@@ -0,0 +1,19 @@
+package com.yourbank.api;
+
+
+/**
+ * An error that maps directly to an HTTP status, e.g. a missing session (401) or an unknown route (404).
+ */
+class ApiException extends RuntimeException {
+
+    private final int status;
+
+    ApiException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    int getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,128 @@
+package com.yourbank.api;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.yourbank.model.Money;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+
+class ApiRequest {
+
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+
+    private final HttpExchange exchange;
+    private Map<String, Object> body;
+    private Map<String, String> query;
+
+
+    ApiRequest(HttpExchange exchange) {
+        this.exchange = exchange;
+    }
+
+
+    String method() {
+        return exchange.getRequestMethod();
+    }
+
+
+    String path() {
+        return exchange.getRequestURI().getPath();
+    }
+
+
+    String bearerToken() {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        if (header == null || !header.regionMatches(true, 0, "Bearer ", 0, 7)) {
+            return null;
+        }
+        return header.substring(7).trim();
+    }
+
+
+    String query(String name) {
+        if (query == null) {
+            query = new HashMap<>();
+            String raw = exchange.getRequestURI().getRawQuery();
+            if (raw != null) {
+                for (String pair : raw.split("&")) {
+                    int eq = pair.indexOf('=');
+                    String key = eq < 0 ? pair : pair.substring(0, eq);
+                    String value = eq < 0 ? "" : pair.substring(eq + 1);
+                    query.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return query.get(name);
+    }
+
+
+    String requireString(String field) throws IOException {
+        Object value = body().get(field);
+        if (!(value instanceof String s) || s.isBlank()) {
+            throw new ApiException(400, "Field '" + field + "' is required.");
+        }
+        return s.trim();
+    }
+
+
+    Money requireAmount(String field) throws IOException {
+        Object value = body().get(field);
+        BigDecimal amount = null;
+        if (value instanceof BigDecimal number) {
+            amount = number;
+        } else if (value instanceof String s) {
+            try {
+                amount = new BigDecimal(s.trim());
+            } catch (NumberFormatException e) {
+                // fall through
+            }
+        }
+        if (amount == null) {
+            throw new ApiException(400, "Field '" + field + "' must be a number.");
+        }
+        try {
+            return Money.of(amount);
+        } catch (ArithmeticException e) {
+            throw new ApiException(400, "Field '" + field + "' must be an in-range amount with at most "
+                    + Money.SCALE + " decimal places.");
+        }
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> body() throws IOException {
+        if (body != null) {
+            return body;
+        }
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+            if (bytes.length > MAX_BODY_BYTES) {
+                throw new ApiException(413, "Request body is too large.");
+            }
+            String text = new String(bytes, StandardCharsets.UTF_8);
+            if (text.isBlank()) {
+                body = Collections.emptyMap();
+                return body;
+            }
+
+            Object parsed;
+            try {
+                parsed = Json.parse(text);
+            } catch (IllegalArgumentException e) {
+                throw new ApiException(400, "Malformed JSON: " + e.getMessage());
+            }
+            if (!(parsed instanceof Map)) {
+                throw new ApiException(400, "Request body must be a JSON object.");
+            }
+            body = (Map<String, Object>) parsed;
+            return body;
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package com.yourbank.api;
+
+import com.sun.net.httpserver.HttpServer;
+import com.yourbank.dao.StorageEngine;
+import com.yourbank.exception.AccountNotFoundException;
+import com.yourbank.exception.ValidationException;
+import com.yourbank.model.Account;
+import com.yourbank.model.Account.AccountStatus;
+import com.yourbank.model.Money;
+import com.yourbank.model.Payee;
+import com.yourbank.model.TransactionCursor;
+import com.yourbank.model.TransactionRecord;
+import com.yourbank.service.AccountManager;
+import com.yourbank.util.DatabaseUtil;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+
+/**
+ * HTTP/JSON front end for {@link AccountManager}, served by the JDK's built-in HTTP server with one virtual
+ * thread per request. Clients log in with {@code POST /api/login} and send the returned token as
+ * {@code Authorization: Bearer <token>} on every other call.
+ *
+ * <pre>
+ * POST   /api/login          {accountNumber, password}  -> {token, otpRequired}
+ * POST   /api/login/otp      {code}                     -> {verified}
+ * POST   /api/logout
+ * GET    /api/balance
+ * POST   /api/deposit        {amount}
+ * POST   /api/withdraw       {amount}
+ * POST   /api/transfer       {toAccountNumber, amount}
+ * GET    /api/statement      ?limit=20&amp;after=&lt;next&gt;
+ * GET    /api/payees
+ * POST   /api/payees         {name, accountNumber, ifsc}
+ * DELETE /api/payees/{id}
+ * </pre>
+ */
+public class ApiServer {
+
+    private static final int MAX_STATEMENT_PAGE = 100;
+
+    private final AccountManager manager;
+    private final SessionStore sessions;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+
+    public ApiServer(AccountManager manager, int port) throws IOException {
+        this.manager = manager;
+        this.sessions = new SessionStore(
+                DatabaseUtil.getIntProperty("API_SESSION_TTL_SECONDS", 900) * 1000L,
+                DatabaseUtil.getIntProperty("API_MAX_SESSIONS", 100000)
+        );
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.server = HttpServer.create(new InetSocketAddress(port), DatabaseUtil.getIntProperty("API_BACKLOG", 0));
+        this.server.setExecutor(executor);
+
+        server.createContext("/api/login", new JsonHandler().on("POST", this::login));
+        server.createContext("/api/login/otp", new JsonHandler().on("POST", this::verifyOtp));
+        server.createContext("/api/logout", new JsonHandler().on("POST", this::logout));
+        server.createContext("/api/balance", new JsonHandler().on("GET", this::balance));
+        server.createContext("/api/deposit", new JsonHandler().on("POST", this::deposit));
+        server.createContext("/api/withdraw", new JsonHandler().on("POST", this::withdraw));
+        server.createContext("/api/transfer", new JsonHandler().on("POST", this::transfer));
+        server.createContext("/api/statement", new JsonHandler().on("GET", this::statement));
+        server.createContext("/api/payees", new JsonHandler()
+                .on("GET", this::listPayees)
+                .on("POST", this::addPayee)
+                .on("DELETE", this::deletePayee));
+    }
+
+
+    public void start() {
+        server.start();
+        System.out.println("Banking API listening on port " + server.getAddress().getPort());
+    }
+
+
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+    }
+
+
+    public static void main(String[] args) throws IOException {
+        ApiServer apiServer = new ApiServer(new AccountManager(), DatabaseUtil.getIntProperty("API_PORT", 8080));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            apiServer.stop(1);
+            StorageEngine.getDefault().close();
+        }));
+        apiServer.start();
+    }
+
+
+    private Object login(ApiRequest request) throws Exception {
+        String accountNumber = request.requireString("accountNumber");
+        String password = request.requireString("password");
+
+        Account account;
+        try {
+            account = manager.login(accountNumber, password);
+        } catch (AccountNotFoundException | ValidationException e) {
+            // One answer for every failure (unknown, wrong password, frozen, closed), so the API cannot be used
+            // to probe which account numbers exist or what state they are in.
+            throw new ApiException(401, "Invalid account number or password.");
+        }
+
+        boolean otpRequired = account.getSecurityLevel() == Account.SecurityLevel.SECURE_OTP;
+        SessionStore.Session session = sessions.create(account.getAccountNumber(), !otpRequired);
+        if (otpRequired) {
+            try {
+                manager.sendOtp(session.getToken(), account.getPhoneNumber());
+            } catch (Exception e) {
+                sessions.remove(session.getToken());
+                throw e;
+            }
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("token", session.getToken());
+        response.put("otpRequired", otpRequired);
+        return response;
+    }
+
+
+    private Object verifyOtp(ApiRequest request) throws Exception {
+        SessionStore.Session session = sessions.find(request.bearerToken());
+        if (session == null) {
+            throw new ApiException(401, "Not logged in.");
+        }
+        if (!session.isVerified()) {
+            if (!manager.verifyOtp(session.getToken(), request.requireString("code"))) {
+                throw new ApiException(401, "Invalid or expired code.");
+            }
+            session.markVerified();
+        }
+        return Map.of("verified", true);
+    }
+
+
+    private Object logout(ApiRequest request) {
+        sessions.remove(request.bearerToken());
+        return Map.of("loggedOut", true);
+    }
+
+
+    private Object balance(ApiRequest request) {
+        Account account = currentAccount(request);
+        return balanceOf(account);
+    }
+
+
+    private Object deposit(ApiRequest request) throws Exception {
+        Account account = currentAccount(request);
+        Money amount = request.requireAmount("amount");
+        manager.deposit(account, amount);
+        return balanceOf(account);
+    }
+
+
+    private Object withdraw(ApiRequest request) throws Exception {
+        Account account = currentAccount(request);
+        Money amount = request.requireAmount("amount");
+        manager.withdraw(account, amount);
+        return balanceOf(account);
+    }
+
+
+    private Object transfer(ApiRequest request) throws Exception {
+        Account account = currentAccount(request);
+        String toAccountNumber = request.requireString("toAccountNumber");
+        Money amount = request.requireAmount("amount");
+        manager.transfer(account, toAccountNumber, amount);
+        return balanceOf(account);
+    }
+
+
+    private Object statement(ApiRequest request) {
+        Account account = currentAccount(request);
+
+        int limit = 20;
+        if (request.query("limit") != null) {
+            try {
+                limit = Integer.parseInt(request.query("limit"));
+            } catch (NumberFormatException e) {
+                throw new ApiException(400, "Parameter 'limit' must be a number.");
+            }
+        }
+        limit = Math.max(1, Math.min(limit, MAX_STATEMENT_PAGE));
+
+        List<TransactionRecord> page = manager.getTransactionHistoryPage(
+                account.getAccountNumber(), parseCursor(request.query("after")), limit);
+
+        List<Object> transactions = new ArrayList<>(page.size());
+        for (TransactionRecord tx : page) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", tx.getTxId().toString());
+            row.put("type", tx.getTxType().name());
+            row.put("amount", tx.getAmount().toBigDecimal());
+            row.put("from", tx.getFromAccountNumber());
+            row.put("to", tx.getToAccountNumber());
+            row.put("createdAt", tx.getCreatedAt().toString());
+            transactions.add(row);
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("transactions", transactions);
+        response.put("next", page.size() < limit ? null : formatCursor(TransactionCursor.after(page.get(page.size() - 1))));
+        return response;
+    }
+
+
+    private Object listPayees(ApiRequest request) {
+        Account account = currentAccount(request);
+
+        List<Object> payees = new ArrayList<>();
+        for (Payee payee : manager.getPayeesForAccount(account)) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", payee.getPayeeId());
+            row.put("name", payee.getPayeeName());
+            row.put("accountNumber", payee.getPayeeAccountNumber());
+            row.put("ifsc", payee.getPayeeIfscCode());
+            payees.add(row);
+        }
+        return Map.of("payees", payees);
+    }
+
+
+    private Object addPayee(ApiRequest request) throws Exception {
+        String name = request.requireString("name");
+        String accountNumber = request.requireString("accountNumber");
+        String ifsc = request.requireString("ifsc");
+        Account account = currentAccount(request);
+        manager.addPayee(account, name, accountNumber, ifsc);
+        return listPayees(request);
+    }
+
+
+    private Object deletePayee(ApiRequest request) throws Exception {
+        String path = request.path();
+        int payeeId;
+        try {
+            payeeId = Integer.parseInt(path.substring(path.lastIndexOf('/') + 1));
+        } catch (NumberFormatException e) {
+            throw new ApiException(404, "Use DELETE /api/payees/{id}.");
+        }
+        Account account = currentAccount(request);
+        manager.deletePayee(account, payeeId);
+        return Map.of("deleted", payeeId);
+    }
+
+
+    // Re-reads the account on every call; the session only carries the account number.
+    private Account currentAccount(ApiRequest request) {
+        SessionStore.Session session = sessions.find(request.bearerToken());
+        if (session == null || !session.isVerified()) {
+            throw new ApiException(401, "Not logged in.");
+        }
+
+        Account account;
+        try {
+            account = manager.searchAccountByNumber(session.getAccountNumber());
+        } catch (AccountNotFoundException e) {
+            sessions.remove(session.getToken());
+            throw new ApiException(401, "Not logged in.");
+        }
+        if (account.getAccountStatus() != AccountStatus.ACTIVE) {
+            throw new ApiException(403, "This account is " + account.getAccountStatus() + ". Please contact the bank.");
+        }
+        return account;
+    }
+
+
+    private static Map<String, Object> balanceOf(Account account) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("accountNumber", account.getAccountNumber());
+        response.put("balance", account.getBalance().toBigDecimal());
+        return response;
+    }
+
+
+    private static String formatCursor(TransactionCursor cursor) {
+        return cursor.getCreatedAt() + "_" + cursor.getTxId();
+    }
+
+
+    private static TransactionCursor parseCursor(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        int separator = value.indexOf('_');
+        try {
+            return new TransactionCursor(
+                    LocalDateTime.parse(value.substring(0, separator)),
+                    UUID.fromString(value.substring(separator + 1)));
+        } catch (DateTimeParseException | IllegalArgumentException | StringIndexOutOfBoundsException e) {
+            throw new ApiException(400, "Parameter 'after' is not a valid cursor.");
+        }
+    }
+}
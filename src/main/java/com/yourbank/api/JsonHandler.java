@@ -0,0 +1,89 @@
+package com.yourbank.api;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.yourbank.exception.AccountNotFoundException;
+import com.yourbank.exception.InsufficientFundsException;
+import com.yourbank.exception.ValidationException;
+import com.yourbank.util.Metrics;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * Dispatches one path to an endpoint per HTTP method and turns the result, or the exception, into a JSON
+ * response. Domain exceptions map to 4xx statuses with their message; anything unexpected is logged and
+ * answered with a generic 500 so internals never leak to clients. Every exchange gets a response, even when the
+ * endpoint fails with an {@code Error}.
+ */
+class JsonHandler implements HttpHandler {
+
+    interface Endpoint {
+        Object handle(ApiRequest request) throws Exception;
+    }
+
+
+    private final Map<String, Endpoint> endpoints = new HashMap<>();
+
+
+    JsonHandler on(String method, Endpoint endpoint) {
+        endpoints.put(method, endpoint);
+        return this;
+    }
+
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        Metrics.increment("api.requests");
+
+        int status = 200;
+        Object response;
+        try {
+            Endpoint endpoint = endpoints.get(exchange.getRequestMethod());
+            if (endpoint == null) {
+                throw new ApiException(405, "Method " + exchange.getRequestMethod() + " is not allowed here.");
+            }
+            response = endpoint.handle(new ApiRequest(exchange));
+        } catch (ApiException e) {
+            status = e.getStatus();
+            response = error(e.getMessage());
+        } catch (ValidationException e) {
+            status = 400;
+            response = error(e.getMessage());
+        } catch (AccountNotFoundException e) {
+            status = 404;
+            response = error(e.getMessage());
+        } catch (InsufficientFundsException e) {
+            status = 422;
+            response = error(e.getMessage());
+        } catch (Exception | Error e) {
+            System.err.println("Unhandled API error on " + exchange.getRequestURI() + ": " + e.getMessage());
+            e.printStackTrace();
+            status = 500;
+            response = error("An internal error occurred. Please try again.");
+        }
+
+        if (status >= 400) {
+            Metrics.increment("api.errors." + status);
+        }
+
+        byte[] bytes = Json.write(response).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        } finally {
+            Metrics.add("api.latency_nanos", System.nanoTime() - start);
+        }
+    }
+
+
+    private static Map<String, Object> error(String message) {
+        return Map.of("error", message == null ? "Request failed." : message);
+    }
+}
@@ -0,0 +1,110 @@
+package com.yourbank.api;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Bearer-token sessions. A session only remembers which account it belongs to; the account itself
+ * is re-read on every request, so a session never acts on a stale balance or status.
+ *
+ * <p>Sessions expire after {@code ttlMillis} of inactivity. A session created for a {@code SECURE_OTP} login
+ * starts out unverified and cannot be used until its OTP has been checked.
+ */
+class SessionStore {
+
+    private static final SecureRandom random = new SecureRandom();
+
+    private final long ttlMillis;
+    private final int maxSessions;
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+
+    SessionStore(long ttlMillis, int maxSessions) {
+        this.ttlMillis = ttlMillis;
+        this.maxSessions = maxSessions;
+    }
+
+
+    Session create(String accountNumber, boolean verified) {
+        long now = System.currentTimeMillis();
+        if (sessions.size() >= maxSessions) {
+            sessions.values().removeIf(session -> session.isExpired(now));
+            if (sessions.size() >= maxSessions) {
+                throw new ApiException(503, "Too many active sessions. Please try again later.");
+            }
+        }
+
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        Session session = new Session(token, accountNumber, verified, now + ttlMillis);
+        sessions.put(token, session);
+        return session;
+    }
+
+
+    /** Returns the live session for a token and extends it, or null if there is none. */
+    Session find(String token) {
+        if (token == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        Session session = sessions.get(token);
+        if (session == null) {
+            return null;
+        }
+        if (session.isExpired(now)) {
+            sessions.remove(token, session);
+            return null;
+        }
+        session.expiresAt = now + ttlMillis;
+        return session;
+    }
+
+
+    void remove(String token) {
+        if (token != null) {
+            sessions.remove(token);
+        }
+    }
+
+
+    static class Session {
+
+        private final String token;
+        private final String accountNumber;
+        private volatile boolean verified;
+        private volatile long expiresAt;
+
+        private Session(String token, String accountNumber, boolean verified, long expiresAt) {
+            this.token = token;
+            this.accountNumber = accountNumber;
+            this.verified = verified;
+            this.expiresAt = expiresAt;
+        }
+
+        String getToken() {
+            return token;
+        }
+
+        String getAccountNumber() {
+            return accountNumber;
+        }
+
+        boolean isVerified() {
+            return verified;
+        }
+
+        void markVerified() {
+            verified = true;
+        }
+
+        private boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
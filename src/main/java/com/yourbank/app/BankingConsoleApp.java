@@ -1,16 +1,25 @@
 package com.yourbank.app;
 
+import com.yourbank.dao.StorageEngine;
 import com.yourbank.exception.AccountNotFoundException;
 import com.yourbank.exception.InsufficientFundsException;
 import com.yourbank.exception.ValidationException;
 import com.yourbank.model.Account;
+import com.yourbank.model.AccountSummary;
 import com.yourbank.model.Admin;
+import com.yourbank.model.BalanceCheck;
+import com.yourbank.model.CompactionResult;
+import com.yourbank.model.LedgerTotals;
+import com.yourbank.model.Money;
 import com.yourbank.model.Payee;
+import com.yourbank.model.TransactionCursor;
 import com.yourbank.model.TransactionRecord;
 import com.yourbank.service.AccountManager;
 
 import java.math.BigDecimal;
 import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.InputMismatchException;
 import java.util.List;
 import java.util.Scanner;
@@ -24,6 +33,7 @@ public class BankingConsoleApp {
         System.out.println("Welcome to the Banking Simulator!");
         mainMenuLoop();
         System.out.println("Thank you for banking with us. Goodbye!");
+        StorageEngine.getDefault().close();
     }
 
     private static void mainMenuLoop() {
@@ -207,10 +217,10 @@ public class BankingConsoleApp {
         try {
             System.out.println("Sending OTP to ......" + phoneNumber.substring(phoneNumber.length() - 4));
 
-            String sentOtp = manager.sendOtp(phoneNumber);
+            manager.sendOtp(phoneNumber, phoneNumber);
 
             String userOtp = readString("Please enter the 6-digit OTP you received: ");
-            return userOtp.equals(sentOtp);
+            return manager.verifyOtp(phoneNumber, userOtp);
 
         } catch (Exception e) {
             System.err.println("Could not send or verify OTP: " + e.getMessage());
@@ -400,7 +410,7 @@ public class BankingConsoleApp {
 
     private static void handleDeposit(Account account) {
         try {
-            BigDecimal amount = readBigDecimal("Enter amount to deposit: ");
+            Money amount = readAmount("Enter amount to deposit: ");
             manager.deposit(account, amount);
             System.out.println("Deposit successful.");
             System.out.println("Your new balance is: $" + account.getBalance());
@@ -411,7 +421,7 @@ public class BankingConsoleApp {
     
     private static void handleWithdraw(Account account) {
         try {
-            BigDecimal amount = readBigDecimal("Enter amount to withdraw: ");
+            Money amount = readAmount("Enter amount to withdraw: ");
             manager.withdraw(account, amount);
             System.out.println("Withdrawal successful.");
             System.out.println("Your new balance is: $" + account.getBalance());
@@ -423,7 +433,7 @@ public class BankingConsoleApp {
     private static void handleTransfer(Account fromAccount) {
         try {
             String toAccNum = readString("Enter recipient's account number: ");
-            BigDecimal amount = readBigDecimal("Enter amount to transfer: ");
+            Money amount = readAmount("Enter amount to transfer: ");
             
             manager.transfer(fromAccount, toAccNum, amount);
             System.out.println("Transfer successful.");
@@ -446,9 +456,31 @@ public class BankingConsoleApp {
     }
 
     private static void handleViewFullHistory(Account account) {
+        final int PAGE_SIZE = 20;
         try {
-            List<TransactionRecord> history = manager.getFullTransactionHistory(account.getAccountNumber());
-            printTransactionList(history, "Full Transaction History");
+            TransactionCursor cursor = null;
+            while (true) {
+                List<TransactionRecord> page = manager.getTransactionHistoryPage(account.getAccountNumber(), cursor, PAGE_SIZE);
+                if (page.isEmpty()) {
+                    if (cursor == null) {
+                        System.out.println("No transactions found.");
+                    }
+                    return;
+                }
+
+                if (cursor == null) {
+                    printTransactionHeader("Full Transaction History");
+                }
+                page.forEach(BankingConsoleApp::printTransactionRow);
+
+                if (page.size() < PAGE_SIZE) {
+                    return;
+                }
+                cursor = TransactionCursor.after(page.get(page.size() - 1));
+                if (readString("-- Press Enter for more, or Q to stop: ").trim().equalsIgnoreCase("Q")) {
+                    return;
+                }
+            }
         } catch (Exception e) {
             System.err.println("Could not retrieve history: " + e.getMessage());
         }
@@ -537,11 +569,13 @@ public class BankingConsoleApp {
             System.out.println(" 2. Search for a Customer (and manage)");
             System.out.println("== System-Wide Monitoring ==");
             System.out.println(" 3. View All Transactions (Global Log)");
+            System.out.println(" 4. Audit Transaction Journal");
+            System.out.println(" 5. Compact Ledger (snapshot & archive old entries)");
             System.out.println("== Admin & Security Management ==");
-            System.out.println(" 4. Create New Admin User");
+            System.out.println(" 6. Create New Admin User");
             System.out.println("== Exit ==");
-            System.out.println(" 5. Logout");
-            System.out.print("Please choose an option (1-5): ");
+            System.out.println(" 7. Logout");
+            System.out.print("Please choose an option (1-7): ");
             
             int choice = readIntInput();
 
@@ -556,9 +590,15 @@ public class BankingConsoleApp {
                     handleViewAllTransactions();
                     break;
                 case 4:
-                    handleCreateNewAdmin();
+                    handleAuditJournal();
                     break;
                 case 5:
+                    handleCompactLedger();
+                    break;
+                case 6:
+                    handleCreateNewAdmin();
+                    break;
+                case 7:
                     System.out.println("Logging out...");
                     return;
                 default:
@@ -569,7 +609,7 @@ public class BankingConsoleApp {
 
     private static void handleListAllAccounts() {
         try {
-            List<Account> accounts = manager.listAllCustomerAccounts();
+            List<AccountSummary> accounts = manager.listAllCustomerAccounts();
             if (accounts.isEmpty()) {
                 System.out.println("No customer accounts found in the system.");
                 return;
@@ -580,13 +620,13 @@ public class BankingConsoleApp {
                 "Account #", "Holder Name", "Email", "Status", "Balance");
             System.out.println(new String(new char[80]).replace("\0", "-"));
             
-            for (Account acc : accounts) {
+            for (AccountSummary acc : accounts) {
                 System.out.printf("%-14s | %-20s | %-25s | %-10s | $%.2f\n",
                     acc.getAccountNumber(),
                     acc.getHolderName(),
                     acc.getEmail(),
                     acc.getAccountStatus(),
-                    acc.getBalance()
+                    acc.getBalance().toBigDecimal()
                 );
             }
         } catch (Exception e) {
@@ -607,7 +647,8 @@ public class BankingConsoleApp {
             System.out.println("1. Freeze Account");
             System.out.println("2. Unfreeze Account");
             System.out.println("3. View Full Profile");
-            System.out.println("4. Back to Admin Menu");
+            System.out.println("4. Verify Balance Against Ledger");
+            System.out.println("5. Back to Admin Menu");
             System.out.print("Action: ");
             
             int choice = readIntInput();
@@ -624,6 +665,9 @@ public class BankingConsoleApp {
                     handleViewProfile(account);
                     break;
                 case 4:
+                    printBalanceCheck(manager.verifyAccountBalance(accNum));
+                    break;
+                case 5:
                     break;
                 default:
                     System.out.println("Invalid action.");
@@ -638,13 +682,77 @@ public class BankingConsoleApp {
 
     private static void handleViewAllTransactions() {
         try {
-            List<TransactionRecord> history = manager.getAllTransactions();
-            printTransactionList(history, "Global Transaction Log");
+            long[] printed = {0};
+            manager.streamAllTransactions(tx -> {
+                if (printed[0]++ == 0) {
+                    printTransactionHeader("Global Transaction Log");
+                }
+                printTransactionRow(tx);
+            });
+            if (printed[0] == 0) {
+                System.out.println("No transactions found.");
+            }
         } catch (Exception e) {
             System.err.println("Could not retrieve log: " + e.getMessage());
         }
     }
 
+    private static void handleAuditJournal() {
+        LedgerTotals totals = manager.auditJournal();
+        if (totals == null) {
+            System.out.println("The transaction journal is not enabled. Set TX_JOURNAL_DIR in db.properties.");
+            return;
+        }
+
+        System.out.println("\n--- Transaction Journal Audit ---");
+        System.out.println("Entries:     " + totals.getEntries());
+        if (totals.getEntries() > 0) {
+            System.out.println("From:        " + totals.getFirstEntryAt());
+            System.out.println("To:          " + totals.getLastEntryAt());
+        }
+        System.out.printf("Deposits:    %d totalling $%.2f\n", totals.getDeposits(), totals.getDepositTotal().toBigDecimal());
+        System.out.printf("Withdrawals: %d totalling $%.2f\n", totals.getWithdrawals(), totals.getWithdrawalTotal().toBigDecimal());
+        System.out.printf("Transfers:   %d totalling $%.2f\n", totals.getTransfers(), totals.getTransferTotal().toBigDecimal());
+    }
+
+    private static void handleCompactLedger() {
+        System.out.print("Keep how many days of history in the live ledger? ");
+        int days = readIntInput();
+        if (days < 1) {
+            System.out.println("At least one day of history must be kept.");
+            return;
+        }
+        LocalDateTime cutoff = LocalDate.now().minusDays(days).atStartOfDay();
+
+        try {
+            CompactionResult result = manager.compactLedger(cutoff);
+            if (!result.isCompleted()) {
+                System.err.println("Compaction stopped: " + result.getMismatches().size() +
+                        " account(s) do not reconcile with the ledger. Nothing was deleted.");
+                for (BalanceCheck check : result.getMismatches()) {
+                    printBalanceCheck(check);
+                }
+                return;
+            }
+            System.out.println("Ledger compacted up to " + cutoff + ".");
+            System.out.println("Archived:  " + result.getArchivedEntries() + " entries to " + result.getArchiveDirectory());
+            System.out.println("Snapshots: " + result.getSnapshotsWritten());
+            System.out.println("Deleted:   " + result.getDeletedEntries() + " entries");
+        } catch (Exception e) {
+            System.err.println("Compaction failed: " + e.getMessage());
+        }
+    }
+
+    private static void printBalanceCheck(BalanceCheck check) {
+        System.out.println("\n--- Balance Check: " + check.getAccountNumber() + " ---");
+        System.out.println("Opening balance: $" + check.getOpeningBalance() +
+                (check.getSnapshotCutoff() != null ? " (snapshot at " + check.getSnapshotCutoff() + ")" : " (no snapshot)"));
+        System.out.println("Entries replayed: " + check.getEntriesReplayed());
+        System.out.println("Expected balance: $" + check.getExpectedBalance());
+        System.out.println("Stored balance:   " + (check.getActualBalance() != null ? "$" + check.getActualBalance() : "account not found"));
+        System.out.println(check.matches() ? "Result: RECONCILED" : "Result: MISMATCH");
+    }
+
     private static void handleCreateNewAdmin() {
         try {
             System.out.println("\n--- Create New Admin ---");
@@ -685,7 +793,7 @@ public class BankingConsoleApp {
     }
 
 
-    private static BigDecimal readBigDecimal(String prompt) {
+    private static Money readAmount(String prompt) {
         while (true) {
             try {
                 System.out.print(prompt);
@@ -694,8 +802,10 @@ public class BankingConsoleApp {
                 if (amount.compareTo(BigDecimal.ZERO) < 0) {
                     System.err.println("Amount cannot be negative.");
                 } else {
-                    return amount;
+                    return Money.of(amount);
                 }
+            } catch (ArithmeticException e) {
+                System.err.println(e.getMessage());
             } catch (InputMismatchException e) {
                 System.err.print("Invalid input. Please enter a numerical amount (e.g., 50.25): ");
                 scanner.nextLine();
@@ -710,19 +820,28 @@ public class BankingConsoleApp {
             return;
         }
         
+        printTransactionHeader(title);
+        for (TransactionRecord tx : transactions) {
+            printTransactionRow(tx);
+        }
+    }
+
+
+    private static void printTransactionHeader(String title) {
         System.out.println("\n--- " + title + " ---");
         System.out.printf("%-12s | %-10s | %-12s | %-14s | %-14s\n",
             "Date", "Type", "Amount", "From Account", "To Account");
         System.out.println(new String(new char[70]).replace("\0", "-"));
-            
-        for (TransactionRecord tx : transactions) {
-            System.out.printf("%-12s | %-10s | $%-11.2f | %-14s | %-14s\n",
-                tx.getCreatedAt().toLocalDate(),
-                tx.getTxType(),
-                tx.getAmount(),
-                tx.getFromAccountNumber() != null ? tx.getFromAccountNumber() : "N/A",
-                tx.getToAccountNumber() != null ? tx.getToAccountNumber() : "N/A"
-            );
-        }
+    }
+
+
+    private static void printTransactionRow(TransactionRecord tx) {
+        System.out.printf("%-12s | %-10s | $%-11.2f | %-14s | %-14s\n",
+            tx.getCreatedAt().toLocalDate(),
+            tx.getTxType(),
+            tx.getAmount().toBigDecimal(),
+            tx.getFromAccountNumber() != null ? tx.getFromAccountNumber() : "N/A",
+            tx.getToAccountNumber() != null ? tx.getToAccountNumber() : "N/A"
+        );
     }
 }
\ No newline at end of file
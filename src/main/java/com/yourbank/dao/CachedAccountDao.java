@@ -0,0 +1,273 @@
+package com.yourbank.dao;
+
+import com.yourbank.exception.OptimisticLockException;
+import com.yourbank.model.Account;
+import com.yourbank.model.Account.AccountStatus;
+import com.yourbank.model.AccountSummary;
+import com.yourbank.model.Money;
+import com.yourbank.util.SegmentedLruCache;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Read-through / write-through cache in front of another {@link AccountDao}.
+ *
+ * <p>Accounts are cached as private copies and handed out as fresh copies, because callers mutate the
+ * {@link Account} they hold. A balance change keeps the entry but drops its balance, and the next lookup reads
+ * just the balance by primary key. Profile and status updates do the same, because the caller's copy may carry
+ * an older balance. The balance is never decided from the cache (debits are guarded in SQL and transfers
+ * re-read under a row lock), so this only keeps the balance shown to the customer current.
+ *
+ * <p>A lookup only fills the cache if no write to the same account went through this DAO while it was reading
+ * the database. Otherwise a reader that loaded a row just before a concurrent freeze could put the old ACTIVE
+ * copy back after the writer had cached the frozen one. Each key hashes to one of {@value #STRIPES} stripes
+ * holding a write generation, so writes to other accounts rarely cost a reader its fill.
+ *
+ * <p>Balance changes usually run inside a storage transaction, and until it commits other readers still see the
+ * old balance. The balance is therefore dropped again once the transaction has committed, and a thread that has
+ * a transaction open never fills the cache, since it may be reading changes that are later rolled back.
+ */
+public class CachedAccountDao implements AccountDao {
+
+    private static final int STRIPES = 256;
+
+    private final AccountDao delegate;
+    private final StorageEngine engine;
+    private final SegmentedLruCache<String, Account> cache;
+    private final WriteStripe[] stripes = new WriteStripe[STRIPES];
+
+
+    public CachedAccountDao(AccountDao delegate, StorageEngine engine, int maxEntries, long ttlSeconds) {
+        this.delegate = delegate;
+        this.engine = engine;
+        this.cache = new SegmentedLruCache<>("cache.accounts", maxEntries, ttlSeconds, TimeUnit.SECONDS);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new WriteStripe();
+        }
+    }
+
+
+    @Override
+    public void createAccount(Account account) throws SQLException {
+        delegate.createAccount(account);
+        recordWrite(account.getAccountNumber(), copy(account));
+    }
+
+
+    @Override
+    public Account findAccountByNumber(String accountNumber) throws SQLException {
+        WriteStripe stripe = stripeFor(accountNumber);
+        Account cached = cache.get(accountNumber);
+        if (cached != null) {
+            Account account = copy(cached);
+            if (account.getBalance() != null) {
+                return account;
+            }
+            long generation = stripe.generation();
+            Money balance = delegate.findBalance(accountNumber);
+            if (balance != null) {
+                account.setBalance(balance);
+                fillBalanceIfUnchanged(stripe, accountNumber, balance, generation);
+                return account;
+            }
+        }
+
+        long generation = stripe.generation();
+        Account account = delegate.findAccountByNumber(accountNumber);
+        if (account != null) {
+            fillIfUnchanged(stripe, accountNumber, copy(account), generation);
+        }
+        return account;
+    }
+
+
+    @Override
+    public AccountStatus findAccountStatus(String accountNumber) throws SQLException {
+        Account cached = cache.get(accountNumber);
+        return cached != null ? cached.getAccountStatus() : delegate.findAccountStatus(accountNumber);
+    }
+
+
+    @Override
+    public boolean existsActive(String accountNumber) throws SQLException {
+        Account cached = cache.get(accountNumber);
+        return cached != null ? cached.getAccountStatus() == AccountStatus.ACTIVE : delegate.existsActive(accountNumber);
+    }
+
+
+    @Override
+    public void updateAccount(Account account) throws SQLException, OptimisticLockException {
+        try {
+            delegate.updateAccount(account);
+        } catch (OptimisticLockException e) {
+            recordWrite(account.getAccountNumber(), null);
+            throw e;
+        }
+        recordWrite(account.getAccountNumber(), withoutBalance(account));
+    }
+
+
+    @Override
+    public void updatePasswordHash(Account account, String newPasswordHash) throws SQLException, OptimisticLockException {
+        try {
+            delegate.updatePasswordHash(account, newPasswordHash);
+        } catch (OptimisticLockException e) {
+            recordWrite(account.getAccountNumber(), null);
+            throw e;
+        }
+        recordWrite(account.getAccountNumber(), withoutBalance(account));
+    }
+
+
+    @Override
+    public Money creditBalance(String accountNumber, Money amount) throws SQLException {
+        try {
+            return delegate.creditBalance(accountNumber, amount);
+        } finally {
+            forgetBalance(accountNumber);
+        }
+    }
+
+
+    @Override
+    public Money debitBalance(String accountNumber, Money amount) throws SQLException {
+        try {
+            return delegate.debitBalance(accountNumber, amount);
+        } finally {
+            forgetBalance(accountNumber);
+        }
+    }
+
+
+    @Override
+    public AccountSummary findAccountSummaryForUpdate(String accountNumber) throws SQLException {
+        return delegate.findAccountSummaryForUpdate(accountNumber);
+    }
+
+
+    @Override
+    public long reserveAccountNumbers(int count) throws SQLException {
+        return delegate.reserveAccountNumbers(count);
+    }
+
+
+    @Override
+    public Money findBalance(String accountNumber) throws SQLException {
+        return delegate.findBalance(accountNumber);
+    }
+
+
+    @Override
+    public List<AccountSummary> listAccountSummaries() throws SQLException {
+        return delegate.listAccountSummaries();
+    }
+
+
+    private WriteStripe stripeFor(String accountNumber) {
+        int hash = accountNumber.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+
+    private void fillIfUnchanged(WriteStripe stripe, String accountNumber, Account loaded, long generation) {
+        if (engine.isTransactionActive()) {
+            return;
+        }
+        synchronized (stripe) {
+            if (stripe.generation == generation) {
+                cache.put(accountNumber, loaded);
+            }
+        }
+    }
+
+
+    private void fillBalanceIfUnchanged(WriteStripe stripe, String accountNumber, Money balance, long generation) {
+        if (engine.isTransactionActive()) {
+            return;
+        }
+        synchronized (stripe) {
+            if (stripe.generation == generation) {
+                cache.update(accountNumber, cached -> withBalance(cached, balance));
+            }
+        }
+    }
+
+
+    // Concurrent balance changes can finish in any order, so the balance each one returns is not cached.
+    private void forgetBalance(String accountNumber) {
+        dropBalance(accountNumber);
+        if (engine.isTransactionActive()) {
+            // A reader between the write and the commit can still fill the old balance; this bump stops or undoes it.
+            engine.afterCommit(() -> dropBalance(accountNumber));
+        }
+    }
+
+
+    private void dropBalance(String accountNumber) {
+        WriteStripe stripe = stripeFor(accountNumber);
+        synchronized (stripe) {
+            stripe.generation++;
+            cache.update(accountNumber, cached -> withBalance(cached, null));
+        }
+    }
+
+
+    // Caches the written state, or drops the entry when the new state is not known here.
+    private void recordWrite(String accountNumber, Account written) {
+        WriteStripe stripe = stripeFor(accountNumber);
+        synchronized (stripe) {
+            stripe.generation++;
+            if (written != null) {
+                cache.put(accountNumber, written);
+            } else {
+                cache.invalidate(accountNumber);
+            }
+        }
+    }
+
+
+    private static final class WriteStripe {
+
+        private long generation = 0;
+
+        private synchronized long generation() {
+            return generation;
+        }
+    }
+
+
+    private static Account withoutBalance(Account account) {
+        return withBalance(account, null);
+    }
+
+
+    private static Account withBalance(Account account, Money balance) {
+        Account changed = copy(account);
+        changed.setBalance(balance);
+        return changed;
+    }
+
+
+    private static Account copy(Account account) {
+        return new Account(
+                account.getAccountNumber(),
+                account.getHolderName(),
+                account.getPasswordHash(),
+                account.getEmail(),
+                account.getPhoneNumber(),
+                account.getFullAddress(),
+                account.getPanCardNumber(),
+                account.getAadharCardNumber(),
+                account.getIfscCode(),
+                account.getAccountType(),
+                account.getSecurityLevel(),
+                account.getAccountStatus(),
+                account.getBalance(),
+                account.getCreatedAt(),
+                account.getVersion()
+        );
+    }
+}
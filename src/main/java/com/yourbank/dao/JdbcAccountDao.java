@@ -0,0 +1,312 @@
+package com.yourbank.dao;
+
+import com.yourbank.exception.OptimisticLockException;
+import com.yourbank.model.Account;
+import com.yourbank.model.Account.AccountStatus;
+import com.yourbank.model.Account.AccountType;
+import com.yourbank.model.Account.SecurityLevel;
+import com.yourbank.model.AccountSummary;
+import com.yourbank.model.Money;
+import com.yourbank.util.DatabaseUtil;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class JdbcAccountDao implements AccountDao {
+
+    private static final String SUMMARY_COLUMNS = "account_number, holder_name, email, account_status, balance";
+
+
+    @Override
+    public void createAccount(Account account) throws SQLException {
+        // The SQL query with placeholders (?)
+        String sql = "INSERT INTO users (account_number, holder_name, password_hash, email, " +
+                "phone_number, full_address, pan_card_number, aadhar_card_number, " +
+                "ifsc_code, account_type, security_level, balance, created_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+        try (Connection connection = DatabaseUtil.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+
+            statement.setString(1, account.getAccountNumber());
+            statement.setString(2, account.getHolderName());
+            statement.setString(3, account.getPasswordHash());
+            statement.setString(4, account.getEmail());
+            statement.setString(5, account.getPhoneNumber());
+            statement.setString(6, account.getFullAddress());
+            statement.setString(7, account.getPanCardNumber());
+            statement.setString(8, account.getAadharCardNumber());
+            statement.setString(9, account.getIfscCode());
+            statement.setString(10, account.getAccountType().name());
+            statement.setString(11, account.getSecurityLevel().name());
+            statement.setBigDecimal(12, account.getBalance().toBigDecimal());
+            statement.setObject(13, account.getCreatedAt());
+
+
+            statement.executeUpdate();
+        }
+    }
+
+
+    @Override
+    public Account findAccountByNumber(String accountNumber) throws SQLException {
+        String sql = "SELECT * FROM users WHERE account_number = ?";
+
+        try (Connection connection = DatabaseUtil.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, accountNumber);
+
+            try (ResultSet rs = statement.executeQuery()) {
+                if (rs.next()) {
+
+                    return mapResultSetToAccount(rs);
+                }
+            }
+        }
+        return null;
+    }
+
+
+    @Override
+    public AccountStatus findAccountStatus(String accountNumber) throws SQLException {
+        String sql = "SELECT account_status FROM users WHERE account_number = ?";
+
+        try (Connection connection = DatabaseUtil.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, accountNumber);
+
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() ? AccountStatus.valueOf(rs.getString("account_status")) : null;
+            }
+        }
+    }
+
+
+    @Override
+    public boolean existsActive(String accountNumber) throws SQLException {
+        String sql = "SELECT 1 FROM users WHERE account_number = ? AND account_status = 'ACTIVE'";
+
+        try (Connection connection = DatabaseUtil.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, accountNumber);
+
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+
+    @Override
+    public AccountSummary findAccountSummaryForUpdate(String accountNumber) throws SQLException {
+        String sql = "SELECT " + SUMMARY_COLUMNS + " FROM users WHERE account_number = ? FOR UPDATE";
+
+        try (Connection connection = DatabaseUtil.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, accountNumber);
+
+            try (ResultSet rs = statement.executeQuery()) {
+                if (rs.next()) {
+                    return mapResultSetToSummary(rs);
+                }
+            }
+        }
+        return null;
+    }
+
+
+    @Override
+    public void updateAccount(Account account) throws SQLException, OptimisticLockException {
+
+        String sql = "UPDATE users SET " +
+                "holder_name = ?, email = ?, phone_number = ?, full_address = ?, " +
+                "password_hash = ?, account_status = ?, security_level = ?, version = version + 1 " +
+                "WHERE account_number = ? AND version = ?";
+
+        try (Connection connection = DatabaseUtil.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, account.getHolderName());
+            statement.setString(2, account.getEmail());
+            statement.setString(3, account.getPhoneNumber());
+            statement.setString(4, account.getFullAddress());
+            statement.setString(5, account.getPasswordHash());
+            statement.setString(6, account.getAccountStatus().name());
+            statement.setString(7, account.getSecurityLevel().name());
+            statement.setString(8, account.getAccountNumber());
+            statement.setLong(9, account.getVersion());
+
+            if (statement.executeUpdate() == 0) {
+                throw new OptimisticLockException("Account " + account.getAccountNumber() +
+                        " was modified concurrently (expected version " + account.getVersion() + ").");
+            }
+        }
+        account.setVersion(account.getVersion() + 1);
+    }
+
+
+    @Override
+    public void updatePasswordHash(Account account, String newPasswordHash) throws SQLException, OptimisticLockException {
+
+        String sql = "UPDATE users SET password_hash = ?, version = version + 1 WHERE account_number = ? AND version = ?";
+
+        try (Connection connection = DatabaseUtil.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, newPasswordHash);
+            statement.setString(2, account.getAccountNumber());
+            statement.setLong(3, account.getVersion());
+
+            if (statement.executeUpdate() == 0) {
+                throw new OptimisticLockException("Account " + account.getAccountNumber() +
+                        " was modified concurrently (expected version " + account.getVersion() + ").");
+            }
+        }
+        account.setPasswordHash(newPasswordHash);
+        account.setVersion(account.getVersion() + 1);
+    }
+
+    @Override
+    public Money creditBalance(String accountNumber, Money amount) throws SQLException {
+        String sql = "UPDATE users SET balance = balance + ? WHERE account_number = ?";
+        return applyBalanceChange(sql, accountNumber, amount, false);
+    }
+
+
+    @Override
+    public Money debitBalance(String accountNumber, Money amount) throws SQLException {
+        String sql = "UPDATE users SET balance = balance - ? WHERE account_number = ? AND balance >= ?";
+        return applyBalanceChange(sql, accountNumber, amount, true);
+    }
+
+
+    @Override
+    public long reserveAccountNumbers(int count) throws SQLException {
+        String sql = "UPDATE sequences SET next_value = LAST_INSERT_ID(next_value + ?) WHERE name = 'account_number'";
+
+        try (Connection connection = DatabaseUtil.getConnection()) {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setInt(1, count);
+                if (statement.executeUpdate() == 0) {
+                    throw new SQLException("The account_number sequence row is missing.");
+                }
+            }
+            try (PreparedStatement statement = connection.prepareStatement("SELECT LAST_INSERT_ID()");
+                 ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                return rs.getLong(1) - count;
+            }
+        }
+    }
+
+
+    @Override
+    public Money findBalance(String accountNumber) throws SQLException {
+        try (Connection connection = DatabaseUtil.getConnection()) {
+            return selectBalance(connection, accountNumber);
+        }
+    }
+
+    @Override
+    public List<AccountSummary> listAccountSummaries() throws SQLException {
+        List<AccountSummary> accounts = new ArrayList<>();
+        String sql = "SELECT " + SUMMARY_COLUMNS + " FROM users";
+
+        try (Connection connection = DatabaseUtil.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet rs = statement.executeQuery()) {
+
+            while (rs.next()) {
+                accounts.add(mapResultSetToSummary(rs));
+            }
+        }
+        return accounts;
+    }
+
+
+    private Money applyBalanceChange(String sql, String accountNumber, Money amount,
+                                     boolean requireSufficientBalance) throws SQLException {
+
+        try (Connection connection = DatabaseUtil.getConnection()) {
+            // Outside a caller's transaction, keep the update and the read-back together so the
+            // returned balance is exactly the one this update produced.
+            boolean localTransaction = connection.getAutoCommit();
+            if (localTransaction) {
+                connection.setAutoCommit(false);
+            }
+
+            try {
+                int rowsAffected;
+                try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                    BigDecimal value = amount.toBigDecimal();
+                    statement.setBigDecimal(1, value);
+                    statement.setString(2, accountNumber);
+                    if (requireSufficientBalance) {
+                        statement.setBigDecimal(3, value);
+                    }
+                    rowsAffected = statement.executeUpdate();
+                }
+
+                Money newBalance = rowsAffected > 0 ? selectBalance(connection, accountNumber) : null;
+
+                if (localTransaction) {
+                    connection.commit();
+                }
+                return newBalance;
+            } catch (SQLException e) {
+                if (localTransaction) {
+                    connection.rollback();
+                }
+                throw e;
+            }
+        }
+    }
+
+
+    private Money selectBalance(Connection connection, String accountNumber) throws SQLException {
+        String sql = "SELECT balance FROM users WHERE account_number = ?";
+
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, accountNumber);
+
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() ? Money.of(rs.getBigDecimal("balance")) : null;
+            }
+        }
+    }
+
+
+    private AccountSummary mapResultSetToSummary(ResultSet rs) throws SQLException {
+        return new AccountSummary(
+                rs.getString("account_number"),
+                rs.getString("holder_name"),
+                rs.getString("email"),
+                AccountStatus.valueOf(rs.getString("account_status")),
+                Money.of(rs.getBigDecimal("balance"))
+        );
+    }
+
+
+    private Account mapResultSetToAccount(ResultSet rs) throws SQLException {
+        return new Account(
+                rs.getString("account_number"),
+                rs.getString("holder_name"),
+                rs.getString("password_hash"),
+                rs.getString("email"),
+                rs.getString("phone_number"),
+                rs.getString("full_address"),
+                rs.getString("pan_card_number"),
+                rs.getString("aadhar_card_number"),
+                rs.getString("ifsc_code"),
+                AccountType.valueOf(rs.getString("account_type")),
+                SecurityLevel.valueOf(rs.getString("security_level")),
+                AccountStatus.valueOf(rs.getString("account_status")),
+                Money.of(rs.getBigDecimal("balance")),
+                rs.getTimestamp("created_at").toLocalDateTime(),
+                rs.getLong("version")
+        );
+    }
+}
\ No newline at end of file
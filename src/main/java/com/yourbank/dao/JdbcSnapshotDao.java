@@ -0,0 +1,102 @@
+package com.yourbank.dao;
+
+import com.yourbank.model.BalanceSnapshot;
+import com.yourbank.model.Money;
+import com.yourbank.util.DatabaseUtil;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+
+public class JdbcSnapshotDao implements SnapshotDao {
+
+    @Override
+    public void createSnapshots(List<BalanceSnapshot> snapshots) throws SQLException {
+        if (snapshots.isEmpty()) {
+            return;
+        }
+        String sql = "INSERT INTO balance_snapshots (account_number, cutoff_at, balance, created_at) VALUES (?, ?, ?, ?)";
+
+        try (Connection connection = DatabaseUtil.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (BalanceSnapshot snapshot : snapshots) {
+                statement.setString(1, snapshot.getAccountNumber());
+                statement.setObject(2, snapshot.getCutoffAt());
+                statement.setBigDecimal(3, snapshot.getBalance().toBigDecimal());
+                statement.setObject(4, snapshot.getCreatedAt());
+                statement.addBatch();
+            }
+
+            statement.executeBatch();
+        }
+    }
+
+
+    @Override
+    public LocalDateTime findLatestCutoff() throws SQLException {
+        String sql = "SELECT MAX(cutoff_at) FROM balance_snapshots";
+
+        try (Connection connection = DatabaseUtil.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet rs = statement.executeQuery()) {
+            if (rs.next()) {
+                Timestamp cutoff = rs.getTimestamp(1);
+                return cutoff == null ? null : cutoff.toLocalDateTime();
+            }
+        }
+        return null;
+    }
+
+
+    @Override
+    public List<BalanceSnapshot> findSnapshotsAt(LocalDateTime cutoff) throws SQLException {
+        List<BalanceSnapshot> snapshots = new ArrayList<>();
+        String sql = "SELECT * FROM balance_snapshots WHERE cutoff_at = ?";
+
+        try (Connection connection = DatabaseUtil.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setObject(1, cutoff);
+
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    snapshots.add(mapResultSetToSnapshot(rs));
+                }
+            }
+        }
+        return snapshots;
+    }
+
+
+    @Override
+    public BalanceSnapshot findLatestSnapshot(String accountNumber) throws SQLException {
+        String sql = "SELECT * FROM balance_snapshots WHERE account_number = ? ORDER BY cutoff_at DESC LIMIT 1";
+
+        try (Connection connection = DatabaseUtil.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, accountNumber);
+
+            try (ResultSet rs = statement.executeQuery()) {
+                if (rs.next()) {
+                    return mapResultSetToSnapshot(rs);
+                }
+            }
+        }
+        return null;
+    }
+
+
+    private BalanceSnapshot mapResultSetToSnapshot(ResultSet rs) throws SQLException {
+        return new BalanceSnapshot(
+                rs.getString("account_number"),
+                rs.getTimestamp("cutoff_at").toLocalDateTime(),
+                Money.of(rs.getBigDecimal("balance")),
+                rs.getTimestamp("created_at").toLocalDateTime()
+        );
+    }
+}
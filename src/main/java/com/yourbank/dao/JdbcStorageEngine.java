@@ -0,0 +1,130 @@
+package com.yourbank.dao;
+
+import com.yourbank.util.DatabaseUtil;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * MySQL through the pooled connections of {@link DatabaseUtil}; transactions are its thread-bound connections.
+ */
+public class JdbcStorageEngine implements StorageEngine {
+
+    private final AccountDao accounts = new JdbcAccountDao();
+    private final TransactionDao transactions = new JdbcTransactionDao();
+    private final AdminDao admins = new JdbcAdminDao();
+    private final PayeeDao payees = new JdbcPayeeDao();
+    private final SnapshotDao snapshots = new JdbcSnapshotDao();
+    private final ThreadLocal<List<Runnable>> afterCommit = new ThreadLocal<>();
+
+
+    @Override
+    public AccountDao accounts() {
+        return accounts;
+    }
+
+    @Override
+    public TransactionDao transactions() {
+        return transactions;
+    }
+
+    @Override
+    public AdminDao admins() {
+        return admins;
+    }
+
+    @Override
+    public PayeeDao payees() {
+        return payees;
+    }
+
+    @Override
+    public SnapshotDao snapshots() {
+        return snapshots;
+    }
+
+
+    @Override
+    public void beginTransaction(int isolation) throws SQLException {
+        DatabaseUtil.beginTransaction(isolation);
+    }
+
+    @Override
+    public void commitTransaction() throws SQLException {
+        DatabaseUtil.commitTransaction();
+        List<Runnable> actions = afterCommit.get();
+        afterCommit.remove();
+        if (actions != null) {
+            for (Runnable action : actions) {
+                runAfterCommit(action);
+            }
+        }
+    }
+
+    @Override
+    public void rollbackTransaction() {
+        afterCommit.remove();
+        DatabaseUtil.rollbackTransaction();
+    }
+
+    @Override
+    public void endTransaction() {
+        afterCommit.remove();
+        DatabaseUtil.endTransaction();
+    }
+
+    @Override
+    public boolean isTransactionActive() {
+        return DatabaseUtil.isTransactionActive();
+    }
+
+    @Override
+    public void afterCommit(Runnable action) {
+        if (!DatabaseUtil.isTransactionActive()) {
+            runAfterCommit(action);
+            return;
+        }
+        List<Runnable> actions = afterCommit.get();
+        if (actions == null) {
+            actions = new ArrayList<>();
+            afterCommit.set(actions);
+        }
+        actions.add(action);
+    }
+
+
+    @Override
+    public Savepoint setSavepoint() throws SQLException {
+        try (Connection connection = DatabaseUtil.getConnection()) {
+            return connection.setSavepoint();
+        }
+    }
+
+    @Override
+    public void rollbackToSavepoint(Savepoint savepoint) throws SQLException {
+        try (Connection connection = DatabaseUtil.getConnection()) {
+            connection.rollback(savepoint);
+        }
+    }
+
+
+    @Override
+    public void close() {
+        DatabaseUtil.closeConnection();
+    }
+
+
+    // The transaction is already committed, so a failing action must not look like a failed commit.
+    private static void runAfterCommit(Runnable action) {
+        try {
+            action.run();
+        } catch (RuntimeException e) {
+            System.err.println("Error in post-commit action: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.yourbank.dao;
+
+import com.yourbank.model.Money;
+import com.yourbank.model.TransactionCursor;
+import com.yourbank.model.TransactionRecord;
+import com.yourbank.model.TransactionRecord.TxType;
+import com.yourbank.util.DatabaseUtil;
+import com.yourbank.util.TransactionIdGenerator;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+
+public class JdbcTransactionDao implements TransactionDao {
+
+   @Override
+   public void createTransaction(TransactionRecord tx) throws SQLException {
+        String sql = "INSERT INTO transactions (tx_id, tx_type, amount, from_account_number, " +
+                "to_account_number, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+        try (Connection connection = DatabaseUtil.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setBytes(1, TransactionIdGenerator.toBytes(tx.getTxId()));
+            statement.setString(2, tx.getTxType().name());
+            statement.setBigDecimal(3, tx.getAmount().toBigDecimal());
+            statement.setString(4, tx.getFromAccountNumber());
+            statement.setString(5, tx.getToAccountNumber());
+            statement.setObject(6, tx.getCreatedAt());
+
+            statement.executeUpdate();
+        }
+    }
+
+    @Override
+    public void createTransactions(List<TransactionRecord> transactions) throws SQLException {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        String sql = "INSERT INTO transactions (tx_id, tx_type, amount, from_account_number, " +
+                "to_account_number, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+        try (Connection connection = DatabaseUtil.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (TransactionRecord tx : transactions) {
+                statement.setBytes(1, TransactionIdGenerator.toBytes(tx.getTxId()));
+                statement.setString(2, tx.getTxType().name());
+                statement.setBigDecimal(3, tx.getAmount().toBigDecimal());
+                statement.setString(4, tx.getFromAccountNumber());
+                statement.setString(5, tx.getToAccountNumber());
+                statement.setObject(6, tx.getCreatedAt());
+                statement.addBatch();
+            }
+
+            statement.executeBatch();
+        }
+    }
+
+    @Override
+    public List<TransactionRecord> findTransactionsForAccount(String accountNumber, TransactionCursor after,
+                                                              int pageSize) throws SQLException {
+        List<TransactionRecord> transactions = new ArrayList<>();
+        String sql = accountHistorySql(after != null, true);
+
+        try (Connection connection = DatabaseUtil.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            bindAccountHistory(statement, accountNumber, after, pageSize);
+
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    transactions.add(mapResultSetToTransaction(rs));
+                }
+            }
+        }
+        return transactions;
+    }
+
+
+    @Override
+    public void streamTransactionsForAccount(String accountNumber, Consumer<TransactionRecord> handler)
+            throws SQLException {
+        String sql = accountHistorySql(false, false);
+
+        try (Connection connection = DatabaseUtil.getConnection();
+             PreparedStatement statement = prepareStreaming(connection, sql)) {
+            bindAccountHistory(statement, accountNumber, null, 0);
+
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    handler.accept(mapResultSetToTransaction(rs));
+                }
+            }
+        }
+    }
+
+
+    @Override
+    public List<TransactionRecord> findMiniStatement(String accountNumber, int limit) throws SQLException {
+        return findTransactionsForAccount(accountNumber, null, limit);
+    }
+
+
+    /**
+     * An account's history as two index range scans, one on (from_account_number, created_at) and one on
+     * (to_account_number, created_at), merged with UNION ALL. With a limit, each branch stops after that many
+     * rows, so the newest N rows cost O(log n + N) however long the account's history is.
+     * No row appears in both branches because self-transfers are rejected.
+     */
+    private static String accountHistorySql(boolean afterCursor, boolean limited) {
+        String keyset = afterCursor ? " AND (created_at < ? OR (created_at = ? AND tx_id < ?))" : "";
+        String order = " ORDER BY created_at DESC, tx_id DESC";
+        String limit = limited ? " LIMIT ?" : "";
+
+        return "SELECT * FROM (" +
+                "(SELECT * FROM transactions WHERE from_account_number = ?" + keyset + order + limit + ")" +
+                " UNION ALL " +
+                "(SELECT * FROM transactions WHERE to_account_number = ?" + keyset + order + limit + ")" +
+                ") history" + order + limit;
+    }
+
+
+    private static void bindAccountHistory(PreparedStatement statement, String accountNumber,
+                                           TransactionCursor after, int limit) throws SQLException {
+        int index = 1;
+        for (int branch = 0; branch < 2; branch++) {
+            statement.setString(index++, accountNumber);
+            if (after != null) {
+                statement.setObject(index++, after.getCreatedAt());
+                statement.setObject(index++, after.getCreatedAt());
+                statement.setBytes(index++, TransactionIdGenerator.toBytes(after.getTxId()));
+            }
+            if (limit > 0) {
+                statement.setInt(index++, limit);
+            }
+        }
+        if (limit > 0) {
+            statement.setInt(index, limit);
+        }
+    }
+
+
+
+    private TransactionRecord mapResultSetToTransaction(ResultSet rs) throws SQLException {
+        return new TransactionRecord(
+                TransactionIdGenerator.fromBytes(rs.getBytes("tx_id")),
+                TxType.valueOf(rs.getString("tx_type")),
+                Money.of(rs.getBigDecimal("amount")),
+                rs.getString("from_account_number"),
+                rs.getString("to_account_number"),
+                rs.getTimestamp("created_at").toLocalDateTime()
+        );
+    }
+
+    @Override
+    public void streamAllTransactions(Consumer<TransactionRecord> handler) throws SQLException {
+        String sql = "SELECT * FROM transactions ORDER BY created_at DESC, tx_id DESC";
+
+        try (Connection connection = DatabaseUtil.getConnection();
+             PreparedStatement statement = prepareStreaming(connection, sql);
+             ResultSet rs = statement.executeQuery()) {
+
+            while (rs.next()) {
+                handler.accept(mapResultSetToTransaction(rs));
+            }
+        }
+    }
+
+
+    @Override
+    public void streamTransactionsBetween(LocalDateTime from, LocalDateTime to, Consumer<TransactionRecord> handler)
+            throws SQLException {
+        String sql = "SELECT * FROM transactions WHERE " +
+                (from != null ? "created_at >= ?" : "1 = 1") +
+                (to != null ? " AND created_at < ?" : "") +
+                " ORDER BY created_at, tx_id";
+
+        try (Connection connection = DatabaseUtil.getConnection();
+             PreparedStatement statement = prepareStreaming(connection, sql)) {
+            int index = 1;
+            if (from != null) {
+                statement.setObject(index++, from);
+            }
+            if (to != null) {
+                statement.setObject(index, to);
+            }
+
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    handler.accept(mapResultSetToTransaction(rs));
+                }
+            }
+        }
+    }
+
+
+    @Override
+    public void streamTransactionsForAccountSince(String accountNumber, LocalDateTime since,
+                                                  Consumer<TransactionRecord> handler) throws SQLException {
+        String range = since != null ? " AND created_at >= ?" : "";
+        String sql = "SELECT * FROM (" +
+                "(SELECT * FROM transactions WHERE from_account_number = ?" + range + ")" +
+                " UNION ALL " +
+                "(SELECT * FROM transactions WHERE to_account_number = ?" + range + ")" +
+                ") history ORDER BY created_at, tx_id";
+
+        try (Connection connection = DatabaseUtil.getConnection();
+             PreparedStatement statement = prepareStreaming(connection, sql)) {
+            int index = 1;
+            for (int branch = 0; branch < 2; branch++) {
+                statement.setString(index++, accountNumber);
+                if (since != null) {
+                    statement.setObject(index++, since);
+                }
+            }
+
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    handler.accept(mapResultSetToTransaction(rs));
+                }
+            }
+        }
+    }
+
+
+    @Override
+    public int deleteTransactionsBetween(LocalDateTime from, LocalDateTime to, int limit) throws SQLException {
+        String sql = "DELETE FROM transactions WHERE " + (from != null ? "created_at >= ? AND " : "") +
+                "created_at < ? ORDER BY created_at LIMIT ?";
+
+        try (Connection connection = DatabaseUtil.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            int index = 1;
+            if (from != null) {
+                statement.setObject(index++, from);
+            }
+            statement.setObject(index++, to);
+            statement.setInt(index, limit);
+            return statement.executeUpdate();
+        }
+    }
+
+
+    private PreparedStatement prepareStreaming(Connection connection, String sql) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        // Connector/J only streams rows instead of buffering the whole result when asked for Integer.MIN_VALUE.
+        statement.setFetchSize(Integer.MIN_VALUE);
+        return statement;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,109 @@
+package com.yourbank.dao;
+
+import com.yourbank.dao.journal.TransactionJournal;
+import com.yourbank.model.TransactionCursor;
+import com.yourbank.model.TransactionRecord;
+import com.yourbank.util.Metrics;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+
+/**
+ * Mirrors every ledger entry written through another {@link TransactionDao} into a {@link TransactionJournal}.
+ *
+ * <p>Entries are appended only after their transaction commits, so the journal never holds an entry the
+ * ledger rolled back. The ledger stays the source of truth: a failed append is logged and counted in
+ * {@code journal.append_failures}, and reads always go to the delegate.
+ */
+public class JournalingTransactionDao implements TransactionDao {
+
+    private final TransactionDao delegate;
+    private final TransactionJournal journal;
+    private final StorageEngine engine;
+
+
+    public JournalingTransactionDao(TransactionDao delegate, TransactionJournal journal, StorageEngine engine) {
+        this.delegate = delegate;
+        this.journal = journal;
+        this.engine = engine;
+    }
+
+
+    @Override
+    public void createTransaction(TransactionRecord tx) throws SQLException {
+        delegate.createTransaction(tx);
+        engine.afterCommit(() -> mirror(List.of(tx)));
+    }
+
+
+    @Override
+    public void createTransactions(List<TransactionRecord> transactions) throws SQLException {
+        delegate.createTransactions(transactions);
+        if (!transactions.isEmpty()) {
+            List<TransactionRecord> written = List.copyOf(transactions);
+            engine.afterCommit(() -> mirror(written));
+        }
+    }
+
+
+    @Override
+    public List<TransactionRecord> findTransactionsForAccount(String accountNumber, TransactionCursor after,
+                                                              int pageSize) throws SQLException {
+        return delegate.findTransactionsForAccount(accountNumber, after, pageSize);
+    }
+
+
+    @Override
+    public void streamTransactionsForAccount(String accountNumber, Consumer<TransactionRecord> handler)
+            throws SQLException {
+        delegate.streamTransactionsForAccount(accountNumber, handler);
+    }
+
+
+    @Override
+    public List<TransactionRecord> findMiniStatement(String accountNumber, int limit) throws SQLException {
+        return delegate.findMiniStatement(accountNumber, limit);
+    }
+
+
+    @Override
+    public void streamAllTransactions(Consumer<TransactionRecord> handler) throws SQLException {
+        delegate.streamAllTransactions(handler);
+    }
+
+
+    @Override
+    public void streamTransactionsBetween(LocalDateTime from, LocalDateTime to, Consumer<TransactionRecord> handler)
+            throws SQLException {
+        delegate.streamTransactionsBetween(from, to, handler);
+    }
+
+
+    @Override
+    public void streamTransactionsForAccountSince(String accountNumber, LocalDateTime since,
+                                                  Consumer<TransactionRecord> handler) throws SQLException {
+        delegate.streamTransactionsForAccountSince(accountNumber, since, handler);
+    }
+
+
+    // The journal is append-only; compacted entries stay in it.
+    @Override
+    public int deleteTransactionsBetween(LocalDateTime from, LocalDateTime to, int limit) throws SQLException {
+        return delegate.deleteTransactionsBetween(from, to, limit);
+    }
+
+
+    private void mirror(List<TransactionRecord> transactions) {
+        try {
+            journal.append(transactions);
+            Metrics.add("journal.appended", transactions.size());
+        } catch (IOException | RuntimeException e) {
+            Metrics.increment("journal.append_failures");
+            System.err.println("Could not append " + transactions.size() + " entries to the transaction journal: " + e.getMessage());
+        }
+    }
+}
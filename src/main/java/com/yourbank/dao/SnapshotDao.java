@@ -0,0 +1,21 @@
+package com.yourbank.dao;
+
+import com.yourbank.model.BalanceSnapshot;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+
+public interface SnapshotDao {
+
+    void createSnapshots(List<BalanceSnapshot> snapshots) throws SQLException;
+
+    /** The newest cutoff any snapshot was taken at, or null if there are none. */
+    LocalDateTime findLatestCutoff() throws SQLException;
+
+    List<BalanceSnapshot> findSnapshotsAt(LocalDateTime cutoff) throws SQLException;
+
+    /** The account's snapshot with the newest cutoff, or null if it has none. */
+    BalanceSnapshot findLatestSnapshot(String accountNumber) throws SQLException;
+}
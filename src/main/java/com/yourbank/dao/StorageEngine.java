@@ -0,0 +1,90 @@
+package com.yourbank.dao;
+
+import com.yourbank.dao.memory.MemoryStorageEngine;
+import com.yourbank.util.DatabaseUtil;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+
+
+/**
+ * A place accounts and ledger entries live, plus the thread-bound transactions that span its DAOs.
+ *
+ * <p>Transactions follow the JDBC shape: {@link #beginTransaction}, then {@link #commitTransaction} or
+ * {@link #rollbackTransaction}, and always {@link #endTransaction} in a {@code finally}. While a transaction is
+ * active on a thread, every DAO call made from that thread takes part in it.
+ */
+public interface StorageEngine extends AutoCloseable {
+
+    AccountDao accounts();
+
+    TransactionDao transactions();
+
+    AdminDao admins();
+
+    PayeeDao payees();
+
+    SnapshotDao snapshots();
+
+
+    /** Starts a transaction at a {@code Connection.TRANSACTION_*} level, or the engine default if negative. */
+    void beginTransaction(int isolation) throws SQLException;
+
+    void commitTransaction() throws SQLException;
+
+    void rollbackTransaction();
+
+    void endTransaction();
+
+    boolean isTransactionActive();
+
+    /**
+     * Runs {@code action} once the thread's transaction has committed, or right away if none is active.
+     * Actions registered in a transaction that rolls back are dropped.
+     */
+    void afterCommit(Runnable action);
+
+    Savepoint setSavepoint() throws SQLException;
+
+    void rollbackToSavepoint(Savepoint savepoint) throws SQLException;
+
+    @Override
+    void close();
+
+
+    /** The engine chosen by {@code STORAGE_ENGINE} in db.properties, created on first use and shared. */
+    static StorageEngine getDefault() {
+        return DefaultHolder.ENGINE;
+    }
+
+
+    static StorageEngine fromConfiguration() {
+        String engine = DatabaseUtil.getProperty("STORAGE_ENGINE", "jdbc");
+
+        if (engine.equalsIgnoreCase("memory")) {
+            String walDir = DatabaseUtil.getProperty("MEMORY_WAL_DIR", "data");
+            try {
+                return new MemoryStorageEngine(
+                        walDir.isBlank() ? null : Path.of(walDir),
+                        Boolean.parseBoolean(DatabaseUtil.getProperty("MEMORY_WAL_SYNC", "true")),
+                        DatabaseUtil.getIntProperty("MEMORY_WAL_FLUSH_INTERVAL_MICROS", 0)
+                );
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not open the in-memory ledger's write-ahead log: " + e.getMessage(), e);
+            }
+        }
+        if (!engine.equalsIgnoreCase("jdbc")) {
+            throw new IllegalStateException("Unknown STORAGE_ENGINE '" + engine + "'. Use 'jdbc' or 'memory'.");
+        }
+        return new JdbcStorageEngine();
+    }
+
+
+    final class DefaultHolder {
+        private static final StorageEngine ENGINE = fromConfiguration();
+
+        private DefaultHolder() {}
+    }
+}
@@ -1,109 +1,52 @@
 package com.yourbank.dao;
 
+import com.yourbank.model.TransactionCursor;
 import com.yourbank.model.TransactionRecord;
-import com.yourbank.model.TransactionRecord.TxType;
-import com.yourbank.util.DatabaseUtil;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.ArrayList;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 
-public class TransactionDao {
+public interface TransactionDao {
 
-    private Connection connection;
+    void createTransaction(TransactionRecord tx) throws SQLException;
 
-    public TransactionDao() {
-        try {
-            this.connection = DatabaseUtil.getConnection();
-        } catch (SQLException e) {
-            e.printStackTrace();
-            throw new RuntimeException("Failed to connect to the database");
-        }
-    }
+    void createTransactions(List<TransactionRecord> transactions) throws SQLException;
 
-   public void createTransaction(TransactionRecord tx) throws SQLException {
-        String sql = "INSERT INTO transactions (tx_id, tx_type, amount, from_account_number, " +
-                "to_account_number, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+    /**
+     * One page of an account's history, newest first. Pass {@code null} for the first page and
+     * {@link TransactionCursor#after} of the last row for each following page.
+     */
+    List<TransactionRecord> findTransactionsForAccount(String accountNumber, TransactionCursor after,
+                                                       int pageSize) throws SQLException;
 
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, tx.getTxId());
-            statement.setString(2, tx.getTxType().name());
-            statement.setBigDecimal(3, tx.getAmount());
-            statement.setString(4, tx.getFromAccountNumber());
-            statement.setString(5, tx.getToAccountNumber());
-            statement.setObject(6, tx.getCreatedAt());
+    void streamTransactionsForAccount(String accountNumber, Consumer<TransactionRecord> handler)
+            throws SQLException;
 
-            statement.executeUpdate();
-        }
-    }
+    List<TransactionRecord> findMiniStatement(String accountNumber, int limit) throws SQLException;
 
-    public List<TransactionRecord> findTransactionsForAccount(String accountNumber) throws SQLException {
-        List<TransactionRecord> transactions = new ArrayList<>();
-        String sql = "SELECT * FROM transactions WHERE from_account_number = ? OR to_account_number = ? " +
-                "ORDER BY created_at DESC";
+    /**
+     * Hands every transaction to {@code handler}, newest first, one row at a time.
+     * Memory use stays constant no matter how large the table is.
+     */
+    void streamAllTransactions(Consumer<TransactionRecord> handler) throws SQLException;
 
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, accountNumber);
-            statement.setString(2, accountNumber);
+    /**
+     * Hands every transaction with {@code from <= created_at < to} to {@code handler}, oldest first.
+     * Either bound may be null to leave that side open.
+     */
+    void streamTransactionsBetween(LocalDateTime from, LocalDateTime to, Consumer<TransactionRecord> handler)
+            throws SQLException;
 
-            try (ResultSet rs = statement.executeQuery()) {
-                while (rs.next()) {
-                    transactions.add(mapResultSetToTransaction(rs));
-                }
-            }
-        }
-        return transactions;
-    }
+    /** An account's transactions created at or after {@code since} (all of them if null), oldest first. */
+    void streamTransactionsForAccountSince(String accountNumber, LocalDateTime since,
+                                           Consumer<TransactionRecord> handler) throws SQLException;
 
-
-    public List<TransactionRecord> findMiniStatement(String accountNumber, int limit) throws SQLException {
-        List<TransactionRecord> transactions = new ArrayList<>();
-        String sql = "SELECT * FROM transactions WHERE from_account_number = ? OR to_account_number = ? " +
-                "ORDER BY created_at DESC LIMIT ?";
-
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, accountNumber);
-            statement.setString(2, accountNumber);
-            statement.setInt(3, limit);
-
-            try (ResultSet rs = statement.executeQuery()) {
-                while (rs.next()) {
-                    transactions.add(mapResultSetToTransaction(rs));
-                }
-            }
-        }
-        return transactions;
-    }
-
-
-
-    private TransactionRecord mapResultSetToTransaction(ResultSet rs) throws SQLException {
-        return new TransactionRecord(
-                rs.getString("tx_id"),
-                TxType.valueOf(rs.getString("tx_type")),
-                rs.getBigDecimal("amount"),
-                rs.getString("from_account_number"),
-                rs.getString("to_account_number"),
-                rs.getTimestamp("created_at").toLocalDateTime()
-        );
-    }
-
-    public List<TransactionRecord> findAllTransactions() throws SQLException {
-        List<TransactionRecord> transactions = new ArrayList<>();
-        // Note: No 'WHERE' clause
-        String sql = "SELECT * FROM transactions ORDER BY created_at DESC";
-
-        try (PreparedStatement statement = connection.prepareStatement(sql);
-             ResultSet rs = statement.executeQuery()) {
-
-            while (rs.next()) {
-                transactions.add(mapResultSetToTransaction(rs));
-            }
-        }
-        return transactions;
-    }
-}
\ No newline at end of file
+    /**
+     * Deletes up to {@code limit} of the oldest transactions with {@code from <= created_at < to} and returns how
+     * many. {@code from} may be null to leave that side open.
+     */
+    int deleteTransactionsBetween(LocalDateTime from, LocalDateTime to, int limit) throws SQLException;
+}
@@ -0,0 +1,129 @@
+package com.yourbank.dao.journal;
+
+import com.yourbank.model.Money;
+import com.yourbank.model.TransactionRecord;
+import com.yourbank.model.TransactionRecord.TxType;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+
+/**
+ * Forward-only view over journal records, read in place from the mapped segments. {@link #next()} moves to
+ * the next record and the accessors decode fields straight from the mapping, so a full scan allocates nothing
+ * unless the caller asks for a {@link #toRecord()}.
+ *
+ * <p>Filters should use the raw accessors: {@link #matchesAccount(String)} compares packed account numbers
+ * as longs, and {@link #amountMinorUnits()} avoids a {@code Money} per row.
+ */
+public class JournalCursor {
+
+    private final List<ByteBuffer> segments;
+    private final long end;
+
+    private int segmentIndex = 0;
+    private ByteBuffer segment;
+    private long sequence = -1;
+    private int offset;
+    private int remainingInSegment = 0;
+
+
+    JournalCursor(List<ByteBuffer> segments, long end) {
+        this.segments = segments;
+        this.end = end;
+    }
+
+
+    public boolean next() {
+        while (remainingInSegment == 0) {
+            if (segmentIndex >= segments.size()) {
+                return false;
+            }
+            segment = segments.get(segmentIndex++);
+            long first = segment.getLong(8);
+            if (first >= end) {
+                return false;
+            }
+            sequence = first - 1;
+            offset = JournalFormat.HEADER_BYTES - JournalFormat.RECORD_BYTES;
+            remainingInSegment = (int) Math.min((segment.capacity() - JournalFormat.HEADER_BYTES) / JournalFormat.RECORD_BYTES,
+                    end - first);
+        }
+        sequence++;
+        offset += JournalFormat.RECORD_BYTES;
+        remainingInSegment--;
+        return true;
+    }
+
+
+    /** Position of the current record in the journal, counting from 0. */
+    public long sequence() {
+        return sequence;
+    }
+
+    public UUID txId() {
+        return new UUID(segment.getLong(offset + JournalFormat.ID_MSB), segment.getLong(offset + JournalFormat.ID_LSB));
+    }
+
+    public TxType type() {
+        return JournalFormat.type(segment.get(offset + JournalFormat.TYPE));
+    }
+
+    public long amountMinorUnits() {
+        return segment.getLong(offset + JournalFormat.AMOUNT);
+    }
+
+    public Money amount() {
+        return Money.ofMinor(amountMinorUnits());
+    }
+
+    public long createdAtEpochMicros() {
+        return segment.getLong(offset + JournalFormat.CREATED_AT);
+    }
+
+    public LocalDateTime createdAt() {
+        return JournalFormat.fromEpochMicros(createdAtEpochMicros());
+    }
+
+    public String fromAccountNumber() {
+        return JournalFormat.unpackAccount(segment.getLong(offset + JournalFormat.FROM));
+    }
+
+    public String toAccountNumber() {
+        return JournalFormat.unpackAccount(segment.getLong(offset + JournalFormat.TO));
+    }
+
+
+    /** Packed form of an account number, for comparing against many records with {@link #matchesPackedAccount}. */
+    public static long packAccount(String accountNumber) {
+        return JournalFormat.packAccount(accountNumber);
+    }
+
+
+    public boolean matchesPackedAccount(long packedAccount) {
+        return segment.getLong(offset + JournalFormat.FROM) == packedAccount ||
+                segment.getLong(offset + JournalFormat.TO) == packedAccount;
+    }
+
+
+    public boolean matchesAccount(String accountNumber) {
+        return matchesPackedAccount(packAccount(accountNumber));
+    }
+
+
+    public static Money toAmount(long minorUnits) {
+        return Money.ofMinor(minorUnits);
+    }
+
+
+    public static LocalDateTime toDateTime(long epochMicros) {
+        return JournalFormat.fromEpochMicros(epochMicros);
+    }
+
+
+    public TransactionRecord toRecord() {
+        return new TransactionRecord(txId(), type(), amount(), fromAccountNumber(), toAccountNumber(), createdAt());
+    }
+}
@@ -0,0 +1,154 @@
+package com.yourbank.dao.journal;
+
+import com.yourbank.model.Money;
+import com.yourbank.model.TransactionRecord;
+import com.yourbank.model.TransactionRecord.TxType;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.zip.CRC32C;
+
+
+/**
+ * On-disk layout of a journal segment: a 64-byte header followed by fixed-width 56-byte records.
+ *
+ * <pre>
+ * header   0  int    magic "TXJ1"
+ *          4  short  format version
+ *          6  short  record size
+ *          8  long   sequence number of the first record
+ * record   0  long   tx_id, most significant bits
+ *          8  long   tx_id, least significant bits
+ *         16  long   created_at as epoch microseconds (the local date-time read as UTC)
+ *         24  long   amount in minor units, {@link Money#getMinorUnits()}
+ *         32  long   from account, packed (0 if none)
+ *         40  long   to account, packed (0 if none)
+ *         48  byte   type: 1 deposit, 2 withdraw, 3 transfer (0 marks an unwritten slot)
+ *         52  int    CRC32C of bytes 0..51
+ * </pre>
+ *
+ * All values are little-endian. Account numbers are packed as their digit count in the top byte and their
+ * numeric value below it, so leading zeros survive the round trip.
+ */
+final class JournalFormat {
+
+    static final int MAGIC = 0x54584A31;
+    static final short VERSION = 1;
+    static final int HEADER_BYTES = 64;
+    static final int RECORD_BYTES = 56;
+    static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    static final int ID_MSB = 0;
+    static final int ID_LSB = 8;
+    static final int CREATED_AT = 16;
+    static final int AMOUNT = 24;
+    static final int FROM = 32;
+    static final int TO = 40;
+    static final int TYPE = 48;
+    static final int CHECKSUM = 52;
+
+    private static final int MAX_ACCOUNT_DIGITS = 16;
+    private static final long DIGITS_MASK = (1L << 56) - 1;
+    private static final TxType[] TYPES = TxType.values();
+
+
+    private JournalFormat() {}
+
+
+    static String segmentName(long firstSequence) {
+        return String.format("%020d.txj", firstSequence);
+    }
+
+
+    static long segmentBytes(int recordsPerSegment) {
+        return HEADER_BYTES + (long) recordsPerSegment * RECORD_BYTES;
+    }
+
+
+    static void writeHeader(ByteBuffer segment, long firstSequence) {
+        segment.putInt(0, MAGIC);
+        segment.putShort(4, VERSION);
+        segment.putShort(6, (short) RECORD_BYTES);
+        segment.putLong(8, firstSequence);
+    }
+
+
+    static boolean isValidHeader(ByteBuffer segment) {
+        return segment.capacity() >= HEADER_BYTES && segment.getInt(0) == MAGIC &&
+                segment.getShort(4) == VERSION && segment.getShort(6) == RECORD_BYTES;
+    }
+
+
+    /** Encodes a record into {@code record}, which must be a {@link #RECORD_BYTES}-byte buffer at position 0. */
+    static void encode(TransactionRecord tx, ByteBuffer record) {
+        record.putLong(ID_MSB, tx.getTxId().getMostSignificantBits());
+        record.putLong(ID_LSB, tx.getTxId().getLeastSignificantBits());
+        record.putLong(CREATED_AT, toEpochMicros(tx.getCreatedAt()));
+        record.putLong(AMOUNT, tx.getAmount().getMinorUnits());
+        record.putLong(FROM, packAccount(tx.getFromAccountNumber()));
+        record.putLong(TO, packAccount(tx.getToAccountNumber()));
+        record.put(TYPE, (byte) (tx.getTxType().ordinal() + 1));
+        record.put(TYPE + 1, (byte) 0).put(TYPE + 2, (byte) 0).put(TYPE + 3, (byte) 0);
+        record.putInt(CHECKSUM, checksum(record, 0));
+    }
+
+
+    static int checksum(ByteBuffer buffer, int offset) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset, CHECKSUM));
+        return (int) crc.getValue();
+    }
+
+
+    static boolean isValidRecord(ByteBuffer buffer, int offset) {
+        return buffer.get(offset + TYPE) != 0 && buffer.getInt(offset + CHECKSUM) == checksum(buffer, offset);
+    }
+
+
+    static TxType type(byte code) {
+        return TYPES[code - 1];
+    }
+
+
+    static long packAccount(String accountNumber) {
+        if (accountNumber == null) {
+            return 0;
+        }
+        int digits = accountNumber.length();
+        if (digits == 0 || digits > MAX_ACCOUNT_DIGITS) {
+            throw new IllegalArgumentException("Account number cannot be journaled: " + accountNumber);
+        }
+        long value = 0;
+        for (int i = 0; i < digits; i++) {
+            char c = accountNumber.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new IllegalArgumentException("Account number cannot be journaled: " + accountNumber);
+            }
+            value = value * 10 + (c - '0');
+        }
+        return ((long) digits << 56) | value;
+    }
+
+
+    static String unpackAccount(long packed) {
+        if (packed == 0) {
+            return null;
+        }
+        String digits = Long.toString(packed & DIGITS_MASK);
+        int width = (int) (packed >>> 56);
+        return digits.length() >= width ? digits : "0".repeat(width - digits.length()) + digits;
+    }
+
+
+    static long toEpochMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+    }
+
+
+    static LocalDateTime fromEpochMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,220 @@
+package com.yourbank.dao.journal;
+
+import com.yourbank.model.TransactionRecord;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Append-only binary journal of ledger entries in fixed-width records (see {@link JournalFormat}), split into
+ * memory-mapped segment files of {@code recordsPerSegment} records each. Appends are plain stores into the
+ * mapped segment; {@link #cursor()} scans the journal in append order without creating an object per entry.
+ *
+ * <p>On open, the newest segment is scanned for the first unwritten or damaged slot, and appending resumes
+ * there. The journal is a derived copy of the ledger, so it is forced to disk on segment roll and on close
+ * rather than per append.
+ */
+public class TransactionJournal implements AutoCloseable {
+
+    private final Path directory;
+    private final int recordsPerSegment;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private final ByteBuffer staging = ByteBuffer.allocate(JournalFormat.RECORD_BYTES).order(JournalFormat.ORDER);
+
+    private MappedByteBuffer active;
+    private int activeCount;
+    private long size;
+    private boolean closed = false;
+
+
+    public TransactionJournal(Path directory, int recordsPerSegment) throws IOException {
+        if (recordsPerSegment <= 0 || JournalFormat.segmentBytes(recordsPerSegment) > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("recordsPerSegment must be between 1 and " +
+                    (Integer.MAX_VALUE - JournalFormat.HEADER_BYTES) / JournalFormat.RECORD_BYTES + ".");
+        }
+        this.directory = directory;
+        this.recordsPerSegment = recordsPerSegment;
+        Files.createDirectories(directory);
+
+        List<Path> files = segmentFiles(directory);
+        for (int i = 0; i < files.size() - 1; i++) {
+            segments.add(map(files.get(i), FileChannel.MapMode.READ_ONLY, Files.size(files.get(i))));
+        }
+
+        if (files.isEmpty()) {
+            roll();
+        } else {
+            Path last = files.get(files.size() - 1);
+            long firstSequence = firstSequenceOf(last);
+            active = map(last, FileChannel.MapMode.READ_WRITE, Files.size(last));
+            if (!JournalFormat.isValidHeader(active)) {
+                // Created just before a crash, before the header reached the disk.
+                JournalFormat.writeHeader(active, firstSequence);
+            }
+            segments.add(active);
+
+            int capacity = recordCapacity(active);
+            activeCount = 0;
+            while (activeCount < capacity &&
+                    JournalFormat.isValidRecord(active, JournalFormat.HEADER_BYTES + activeCount * JournalFormat.RECORD_BYTES)) {
+                activeCount++;
+            }
+            size = firstSequence + activeCount;
+        }
+    }
+
+
+    public synchronized void append(TransactionRecord tx) throws IOException {
+        ensureOpen();
+        if (activeCount == recordCapacity(active)) {
+            roll();
+        }
+        JournalFormat.encode(tx, staging);
+        active.put(JournalFormat.HEADER_BYTES + activeCount * JournalFormat.RECORD_BYTES, staging.array());
+        activeCount++;
+        size++;
+    }
+
+
+    public synchronized void append(List<TransactionRecord> transactions) throws IOException {
+        for (TransactionRecord tx : transactions) {
+            append(tx);
+        }
+    }
+
+
+    /** Number of entries in the journal. */
+    public synchronized long size() {
+        return size;
+    }
+
+
+    /** A cursor over every entry appended so far, oldest first. Entries appended later are not seen. */
+    public synchronized JournalCursor cursor() {
+        List<ByteBuffer> views = new ArrayList<>(segments.size());
+        for (MappedByteBuffer segment : segments) {
+            views.add(segment.duplicate().order(JournalFormat.ORDER));
+        }
+        return new JournalCursor(views, size);
+    }
+
+
+    public synchronized void force() {
+        if (!closed) {
+            active.force();
+        }
+    }
+
+
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            active.force();
+            closed = true;
+        }
+    }
+
+
+    /** Opens an existing journal or archive for reading only, without ever modifying it. */
+    public static JournalCursor read(Path directory) throws IOException {
+        List<ByteBuffer> views = new ArrayList<>();
+        long end = 0;
+        for (Path file : segmentFiles(directory)) {
+            ByteBuffer segment = map(file, FileChannel.MapMode.READ_ONLY, Files.size(file));
+            if (!JournalFormat.isValidHeader(segment)) {
+                break;
+            }
+            int count = 0;
+            int capacity = recordCapacity(segment);
+            while (count < capacity &&
+                    JournalFormat.isValidRecord(segment, JournalFormat.HEADER_BYTES + count * JournalFormat.RECORD_BYTES)) {
+                count++;
+            }
+            views.add(segment);
+            end = segment.getLong(8) + count;
+            if (count < capacity) {
+                break;
+            }
+        }
+        return new JournalCursor(views, end);
+    }
+
+
+    private void roll() throws IOException {
+        if (active != null) {
+            active.force();
+        }
+        long firstSequence = size;
+        Path file = directory.resolve(JournalFormat.segmentName(firstSequence));
+        MappedByteBuffer segment = map(file, FileChannel.MapMode.READ_WRITE, JournalFormat.segmentBytes(recordsPerSegment));
+        JournalFormat.writeHeader(segment, firstSequence);
+        segments.add(segment);
+        active = segment;
+        activeCount = 0;
+    }
+
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Transaction journal " + directory + " has been closed.");
+        }
+    }
+
+
+    private static long firstSequenceOf(Path segment) throws IOException {
+        String name = segment.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(0, name.length() - ".txj".length()));
+        } catch (NumberFormatException e) {
+            throw new IOException(segment + " is not a transaction journal segment.", e);
+        }
+    }
+
+
+    private static int recordCapacity(ByteBuffer segment) {
+        return (segment.capacity() - JournalFormat.HEADER_BYTES) / JournalFormat.RECORD_BYTES;
+    }
+
+
+    private static MappedByteBuffer map(Path file, FileChannel.MapMode mode, long bytes) throws IOException {
+        StandardOpenOption[] options = mode == FileChannel.MapMode.READ_ONLY
+                ? new StandardOpenOption[]{StandardOpenOption.READ}
+                : new StandardOpenOption[]{StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE};
+
+        // The mapping stays valid after the channel is closed.
+        try (FileChannel channel = FileChannel.open(file, options)) {
+            MappedByteBuffer segment = channel.map(mode, 0, bytes);
+            segment.order(JournalFormat.ORDER);
+            if (Files.size(file) > 0 && bytes >= JournalFormat.HEADER_BYTES && segment.getInt(0) != 0 &&
+                    !JournalFormat.isValidHeader(segment)) {
+                throw new IOException(file + " is not a transaction journal segment.");
+            }
+            return segment;
+        }
+    }
+
+
+    private static List<Path> segmentFiles(Path directory) throws IOException {
+        List<Path> files = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return files;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.txj")) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        }
+        // Names are zero-padded first sequence numbers, so lexical order is append order.
+        files.sort(null);
+        return files;
+    }
+}
@@ -0,0 +1,214 @@
+package com.yourbank.dao.memory;
+
+import com.yourbank.dao.AccountDao;
+import com.yourbank.exception.OptimisticLockException;
+import com.yourbank.model.Account;
+import com.yourbank.model.Account.AccountStatus;
+import com.yourbank.model.AccountSummary;
+import com.yourbank.model.Money;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+
+class MemoryAccountDao implements AccountDao {
+
+    private final MemoryStorageEngine engine;
+
+
+    MemoryAccountDao(MemoryStorageEngine engine) {
+        this.engine = engine;
+    }
+
+
+    @Override
+    public void createAccount(Account account) throws SQLException {
+        Account stored = copy(account);
+        stored.setVersion(0);
+
+        engine.write(tx -> {
+            if (engine.state().accounts.containsKey(account.getAccountNumber())) {
+                throw MemoryStorageEngine.duplicateEntry("Duplicate entry '" + account.getAccountNumber() + "' for key 'users.PRIMARY'");
+            }
+            tx.putAccount(stored);
+            return null;
+        });
+    }
+
+
+    @Override
+    public Account findAccountByNumber(String accountNumber) {
+        return engine.read(() -> {
+            Account account = engine.state().accounts.get(accountNumber);
+            return account == null ? null : copy(account);
+        });
+    }
+
+
+    @Override
+    public AccountStatus findAccountStatus(String accountNumber) {
+        return engine.read(() -> {
+            Account account = engine.state().accounts.get(accountNumber);
+            return account == null ? null : account.getAccountStatus();
+        });
+    }
+
+
+    @Override
+    public boolean existsActive(String accountNumber) {
+        return findAccountStatus(accountNumber) == AccountStatus.ACTIVE;
+    }
+
+
+    // Inside a transaction the caller already holds the engine's write lock, which covers every row.
+    @Override
+    public AccountSummary findAccountSummaryForUpdate(String accountNumber) {
+        return engine.read(() -> {
+            Account account = engine.state().accounts.get(accountNumber);
+            return account == null ? null : summarize(account);
+        });
+    }
+
+
+    @Override
+    public void updateAccount(Account account) throws SQLException, OptimisticLockException {
+        boolean updated = engine.write(tx -> {
+            Account stored = engine.state().accounts.get(account.getAccountNumber());
+            if (stored == null || stored.getVersion() != account.getVersion()) {
+                return false;
+            }
+            Account next = copy(stored);
+            next.setHolderName(account.getHolderName());
+            next.setEmail(account.getEmail());
+            next.setPhoneNumber(account.getPhoneNumber());
+            next.setFullAddress(account.getFullAddress());
+            next.setPasswordHash(account.getPasswordHash());
+            next.setAccountStatus(account.getAccountStatus());
+            next.setSecurityLevel(account.getSecurityLevel());
+            next.setVersion(stored.getVersion() + 1);
+            tx.putAccount(next);
+            return true;
+        });
+
+        if (!updated) {
+            throw new OptimisticLockException("Account " + account.getAccountNumber() +
+                    " was modified concurrently (expected version " + account.getVersion() + ").");
+        }
+        account.setVersion(account.getVersion() + 1);
+    }
+
+
+    @Override
+    public void updatePasswordHash(Account account, String newPasswordHash) throws SQLException, OptimisticLockException {
+        boolean updated = engine.write(tx -> {
+            Account stored = engine.state().accounts.get(account.getAccountNumber());
+            if (stored == null || stored.getVersion() != account.getVersion()) {
+                return false;
+            }
+            Account next = copy(stored);
+            next.setPasswordHash(newPasswordHash);
+            next.setVersion(stored.getVersion() + 1);
+            tx.putAccount(next);
+            return true;
+        });
+
+        if (!updated) {
+            throw new OptimisticLockException("Account " + account.getAccountNumber() +
+                    " was modified concurrently (expected version " + account.getVersion() + ").");
+        }
+        account.setPasswordHash(newPasswordHash);
+        account.setVersion(account.getVersion() + 1);
+    }
+
+
+    @Override
+    public Money creditBalance(String accountNumber, Money amount) throws SQLException {
+        return engine.write(tx -> {
+            Account stored = engine.state().accounts.get(accountNumber);
+            if (stored == null) {
+                return null;
+            }
+            Money balance = stored.getBalance().plus(amount);
+            tx.setBalance(accountNumber, balance);
+            return balance;
+        });
+    }
+
+
+    @Override
+    public Money debitBalance(String accountNumber, Money amount) throws SQLException {
+        return engine.write(tx -> {
+            Account stored = engine.state().accounts.get(accountNumber);
+            if (stored == null || stored.getBalance().isLessThan(amount)) {
+                return null;
+            }
+            Money balance = stored.getBalance().minus(amount);
+            tx.setBalance(accountNumber, balance);
+            return balance;
+        });
+    }
+
+
+    @Override
+    public long reserveAccountNumbers(int count) throws SQLException {
+        return engine.write(tx -> {
+            long first = engine.state().nextAccountNumber;
+            tx.setNextAccountNumber(first + count);
+            return first;
+        });
+    }
+
+
+    @Override
+    public Money findBalance(String accountNumber) {
+        return engine.read(() -> {
+            Account account = engine.state().accounts.get(accountNumber);
+            return account == null ? null : account.getBalance();
+        });
+    }
+
+
+    @Override
+    public List<AccountSummary> listAccountSummaries() {
+        return engine.read(() -> {
+            List<AccountSummary> accounts = new ArrayList<>(engine.state().accounts.size());
+            for (Account account : engine.state().accounts.values()) {
+                accounts.add(summarize(account));
+            }
+            return accounts;
+        });
+    }
+
+
+    private static AccountSummary summarize(Account account) {
+        return new AccountSummary(
+                account.getAccountNumber(),
+                account.getHolderName(),
+                account.getEmail(),
+                account.getAccountStatus(),
+                account.getBalance()
+        );
+    }
+
+
+    private static Account copy(Account account) {
+        return new Account(
+                account.getAccountNumber(),
+                account.getHolderName(),
+                account.getPasswordHash(),
+                account.getEmail(),
+                account.getPhoneNumber(),
+                account.getFullAddress(),
+                account.getPanCardNumber(),
+                account.getAadharCardNumber(),
+                account.getIfscCode(),
+                account.getAccountType(),
+                account.getSecurityLevel(),
+                account.getAccountStatus(),
+                account.getBalance(),
+                account.getCreatedAt(),
+                account.getVersion()
+        );
+    }
+}
@@ -0,0 +1,58 @@
+package com.yourbank.dao.memory;
+
+import com.yourbank.dao.AdminDao;
+import com.yourbank.model.Admin;
+
+import java.sql.SQLException;
+
+
+class MemoryAdminDao implements AdminDao {
+
+    private final MemoryStorageEngine engine;
+
+
+    MemoryAdminDao(MemoryStorageEngine engine) {
+        this.engine = engine;
+    }
+
+
+    @Override
+    public Admin findAdminByUsername(String username) {
+        return engine.read(() -> {
+            Admin admin = engine.state().adminsByUsername.get(username);
+            return admin == null ? null : copy(admin);
+        });
+    }
+
+
+    @Override
+    public void createAdmin(Admin admin) throws SQLException {
+        Admin stored = copy(admin);
+        engine.write(tx -> {
+            if (engine.state().adminsByUsername.containsKey(admin.getUsername())) {
+                throw MemoryStorageEngine.duplicateEntry("Duplicate entry '" + admin.getUsername() + "' for key 'admins.uk_admins_username'");
+            }
+            for (Admin existing : engine.state().adminsByUsername.values()) {
+                if (existing.getAdminId().equals(admin.getAdminId())) {
+                    throw MemoryStorageEngine.duplicateEntry("Duplicate entry '" + admin.getAdminId() + "' for key 'admins.PRIMARY'");
+                }
+            }
+            tx.putAdmin(stored);
+            return null;
+        });
+    }
+
+
+    private static Admin copy(Admin admin) {
+        return new Admin(
+                admin.getAdminId(),
+                admin.getUsername(),
+                admin.getPasswordHash(),
+                admin.getEmail(),
+                admin.getPhoneNumber(),
+                admin.getRole(),
+                admin.getAssignedBank(),
+                admin.getBankBranchIfsc()
+        );
+    }
+}
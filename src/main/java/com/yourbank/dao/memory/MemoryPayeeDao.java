@@ -0,0 +1,84 @@
+package com.yourbank.dao.memory;
+
+import com.yourbank.dao.PayeeDao;
+import com.yourbank.model.Payee;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+
+class MemoryPayeeDao implements PayeeDao {
+
+    private final MemoryStorageEngine engine;
+
+
+    MemoryPayeeDao(MemoryStorageEngine engine) {
+        this.engine = engine;
+    }
+
+
+    @Override
+    public void createPayee(Payee payee) throws SQLException {
+        engine.write(tx -> {
+            for (Payee existing : engine.state().payees.values()) {
+                if (existing.getOwnerAccountNumber().equals(payee.getOwnerAccountNumber()) &&
+                        existing.getPayeeAccountNumber().equals(payee.getPayeeAccountNumber())) {
+                    throw MemoryStorageEngine.duplicateEntry("Duplicate entry '" + payee.getOwnerAccountNumber() + "-" +
+                            payee.getPayeeAccountNumber() + "' for key 'payees.uk_payees_owner_payee'");
+                }
+            }
+            Payee stored = copy(payee);
+            stored.setPayeeId(engine.state().lastPayeeId + 1);
+            tx.putPayee(stored);
+            return null;
+        });
+    }
+
+
+    @Override
+    public boolean deletePayee(int payeeId, String ownerAccountNumber) throws SQLException {
+        return engine.write(tx -> {
+            Payee existing = engine.state().payees.get(payeeId);
+            if (existing == null || !existing.getOwnerAccountNumber().equals(ownerAccountNumber)) {
+                return false;
+            }
+            tx.removePayee(payeeId);
+            return true;
+        });
+    }
+
+
+    @Override
+    public Payee findPayeeById(int payeeId) {
+        return engine.read(() -> {
+            Payee payee = engine.state().payees.get(payeeId);
+            return payee == null ? null : copy(payee);
+        });
+    }
+
+
+    @Override
+    public List<Payee> findPayeesForAccount(String ownerAccountNumber) {
+        return engine.read(() -> {
+            List<Payee> payees = new ArrayList<>();
+            for (Payee payee : engine.state().payees.values()) {
+                if (payee.getOwnerAccountNumber().equals(ownerAccountNumber)) {
+                    payees.add(copy(payee));
+                }
+            }
+            return payees;
+        });
+    }
+
+
+    private static Payee copy(Payee payee) {
+        return new Payee(
+                payee.getPayeeId(),
+                payee.getOwnerAccountNumber(),
+                payee.getPayeeName(),
+                payee.getPayeeAccountNumber(),
+                payee.getPayeeIfscCode()
+        );
+    }
+}
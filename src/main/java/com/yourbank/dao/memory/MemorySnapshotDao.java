@@ -0,0 +1,77 @@
+package com.yourbank.dao.memory;
+
+import com.yourbank.dao.SnapshotDao;
+import com.yourbank.model.BalanceSnapshot;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+
+
+// Snapshots are immutable, so they are stored and handed out without copying.
+class MemorySnapshotDao implements SnapshotDao {
+
+    private final MemoryStorageEngine engine;
+
+
+    MemorySnapshotDao(MemoryStorageEngine engine) {
+        this.engine = engine;
+    }
+
+
+    @Override
+    public void createSnapshots(List<BalanceSnapshot> snapshots) throws SQLException {
+        engine.write(tx -> {
+            for (BalanceSnapshot snapshot : snapshots) {
+                NavigableMap<LocalDateTime, BalanceSnapshot> existing = engine.state().snapshots.get(snapshot.getAccountNumber());
+                if (existing != null && existing.containsKey(snapshot.getCutoffAt())) {
+                    throw MemoryStorageEngine.duplicateEntry("Duplicate entry '" + snapshot.getAccountNumber() + "-" +
+                            snapshot.getCutoffAt() + "' for key 'balance_snapshots.PRIMARY'");
+                }
+                tx.putSnapshot(snapshot);
+            }
+            return null;
+        });
+    }
+
+
+    @Override
+    public LocalDateTime findLatestCutoff() {
+        return engine.read(() -> {
+            LocalDateTime latest = null;
+            for (NavigableMap<LocalDateTime, BalanceSnapshot> history : engine.state().snapshots.values()) {
+                if (!history.isEmpty() && (latest == null || history.lastKey().isAfter(latest))) {
+                    latest = history.lastKey();
+                }
+            }
+            return latest;
+        });
+    }
+
+
+    @Override
+    public List<BalanceSnapshot> findSnapshotsAt(LocalDateTime cutoff) {
+        return engine.read(() -> {
+            List<BalanceSnapshot> snapshots = new ArrayList<>();
+            for (Map<LocalDateTime, BalanceSnapshot> history : engine.state().snapshots.values()) {
+                BalanceSnapshot snapshot = history.get(cutoff);
+                if (snapshot != null) {
+                    snapshots.add(snapshot);
+                }
+            }
+            return snapshots;
+        });
+    }
+
+
+    @Override
+    public BalanceSnapshot findLatestSnapshot(String accountNumber) {
+        return engine.read(() -> {
+            NavigableMap<LocalDateTime, BalanceSnapshot> history = engine.state().snapshots.get(accountNumber);
+            return history == null || history.isEmpty() ? null : history.lastEntry().getValue();
+        });
+    }
+}
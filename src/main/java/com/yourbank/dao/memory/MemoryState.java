@@ -0,0 +1,235 @@
+package com.yourbank.dao.memory;
+
+import com.yourbank.model.Account;
+import com.yourbank.model.Admin;
+import com.yourbank.model.BalanceSnapshot;
+import com.yourbank.model.Money;
+import com.yourbank.model.Payee;
+import com.yourbank.model.TransactionRecord;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+
+/**
+ * Everything the in-memory engine stores. Not thread-safe on its own: the engine's read/write lock guards it.
+ *
+ * <p>Histories are kept sorted oldest-first by (created_at, tx_id), the same order the MySQL queries use,
+ * so a page is a binary search plus a backwards walk.
+ */
+final class MemoryState {
+
+    static final Comparator<TransactionRecord> HISTORY_ORDER = Comparator
+            .comparing(TransactionRecord::getCreatedAt)
+            .thenComparing(tx -> tx.getTxId().getMostSignificantBits(), Long::compareUnsigned)
+            .thenComparing(tx -> tx.getTxId().getLeastSignificantBits(), Long::compareUnsigned);
+
+    final Map<String, Account> accounts = new HashMap<>();
+    final Map<String, List<TransactionRecord>> historyByAccount = new HashMap<>();
+    final List<TransactionRecord> allHistory = new ArrayList<>();
+    final Map<String, Admin> adminsByUsername = new HashMap<>();
+    final Map<Integer, Payee> payees = new TreeMap<>();
+    final Map<String, NavigableMap<LocalDateTime, BalanceSnapshot>> snapshots = new HashMap<>();
+    int lastPayeeId = 0;
+    long nextAccountNumber = 10_000_000_000L;
+
+
+    Account putAccount(Account account) {
+        return accounts.put(account.getAccountNumber(), account);
+    }
+
+    void restoreAccount(String accountNumber, Account previous) {
+        if (previous == null) {
+            accounts.remove(accountNumber);
+        } else {
+            accounts.put(accountNumber, previous);
+        }
+    }
+
+    Money setBalance(String accountNumber, Money balance) {
+        Account account = accounts.get(accountNumber);
+        Money previous = account.getBalance();
+        account.setBalance(balance);
+        return previous;
+    }
+
+
+    void addTransaction(TransactionRecord tx) {
+        insertSorted(allHistory, tx);
+        if (tx.getFromAccountNumber() != null) {
+            insertSorted(historyByAccount.computeIfAbsent(tx.getFromAccountNumber(), k -> new ArrayList<>()), tx);
+        }
+        if (tx.getToAccountNumber() != null) {
+            insertSorted(historyByAccount.computeIfAbsent(tx.getToAccountNumber(), k -> new ArrayList<>()), tx);
+        }
+    }
+
+    void removeTransaction(TransactionRecord tx) {
+        removeFromEnd(allHistory, tx);
+        if (tx.getFromAccountNumber() != null) {
+            removeFromEnd(historyByAccount.get(tx.getFromAccountNumber()), tx);
+        }
+        if (tx.getToAccountNumber() != null) {
+            removeFromEnd(historyByAccount.get(tx.getToAccountNumber()), tx);
+        }
+    }
+
+
+    /**
+     * Removes up to {@code limit} of the oldest entries with {@code from <= created_at < to} ({@code from} may be
+     * null) and returns them.
+     */
+    List<TransactionRecord> removeTransactionsBetween(LocalDateTime from, LocalDateTime to, int limit) {
+        int start = from == null ? 0 : firstIndexAtOrAfter(allHistory, from);
+        int end = start;
+        while (end < allHistory.size() && end - start < limit && allHistory.get(end).getCreatedAt().isBefore(to)) {
+            end++;
+        }
+        List<TransactionRecord> range = allHistory.subList(start, end);
+        List<TransactionRecord> removed = new ArrayList<>(range);
+        range.clear();
+        if (removed.isEmpty()) {
+            return removed;
+        }
+
+        // The removed entries are a contiguous run of the global order, so they are one in each account's too.
+        Map<String, Integer> removedPerAccount = new HashMap<>();
+        for (TransactionRecord tx : removed) {
+            if (tx.getFromAccountNumber() != null) {
+                removedPerAccount.merge(tx.getFromAccountNumber(), 1, Integer::sum);
+            }
+            if (tx.getToAccountNumber() != null) {
+                removedPerAccount.merge(tx.getToAccountNumber(), 1, Integer::sum);
+            }
+        }
+        for (Map.Entry<String, Integer> entry : removedPerAccount.entrySet()) {
+            List<TransactionRecord> history = historyByAccount.get(entry.getKey());
+            int first = lastIndexBefore(history, removed.get(0)) + 1;
+            history.subList(first, first + entry.getValue()).clear();
+        }
+        return removed;
+    }
+
+
+    BalanceSnapshot putSnapshot(BalanceSnapshot snapshot) {
+        return snapshots.computeIfAbsent(snapshot.getAccountNumber(), k -> new TreeMap<>())
+                .put(snapshot.getCutoffAt(), snapshot);
+    }
+
+    void restoreSnapshot(String accountNumber, LocalDateTime cutoff, BalanceSnapshot previous) {
+        if (previous == null) {
+            snapshots.get(accountNumber).remove(cutoff);
+        } else {
+            snapshots.get(accountNumber).put(cutoff, previous);
+        }
+    }
+
+
+    Admin putAdmin(Admin admin) {
+        return adminsByUsername.put(admin.getUsername(), admin);
+    }
+
+    void restoreAdmin(String username, Admin previous) {
+        if (previous == null) {
+            adminsByUsername.remove(username);
+        } else {
+            adminsByUsername.put(username, previous);
+        }
+    }
+
+
+    Payee putPayee(Payee payee) {
+        lastPayeeId = Math.max(lastPayeeId, payee.getPayeeId());
+        return payees.put(payee.getPayeeId(), payee);
+    }
+
+    Payee removePayee(int payeeId) {
+        return payees.remove(payeeId);
+    }
+
+    void restorePayee(int payeeId, Payee previous) {
+        if (previous == null) {
+            payees.remove(payeeId);
+        } else {
+            payees.put(payeeId, previous);
+        }
+    }
+
+
+    /** Index of the newest entry strictly older than {@code bound}, or {@code size - 1} when bound is null. */
+    static int lastIndexBefore(List<TransactionRecord> history, TransactionRecord bound) {
+        if (bound == null) {
+            return history.size() - 1;
+        }
+        int low = 0;
+        int high = history.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (HISTORY_ORDER.compare(history.get(mid), bound) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+
+
+    /** Index of the oldest entry strictly newer than {@code bound}, or {@code size} if there is none. */
+    static int firstIndexAfter(List<TransactionRecord> history, TransactionRecord bound) {
+        int low = 0;
+        int high = history.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (HISTORY_ORDER.compare(history.get(mid), bound) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+
+    private static int firstIndexAtOrAfter(List<TransactionRecord> history, LocalDateTime from) {
+        int low = 0;
+        int high = history.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (history.get(mid).getCreatedAt().isBefore(from)) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+
+    // Entries nearly always arrive in order, so this is an append; a late one is slotted in by binary search.
+    private static void insertSorted(List<TransactionRecord> history, TransactionRecord tx) {
+        int size = history.size();
+        if (size == 0 || HISTORY_ORDER.compare(history.get(size - 1), tx) <= 0) {
+            history.add(tx);
+            return;
+        }
+        history.add(lastIndexBefore(history, tx) + 1, tx);
+    }
+
+
+    // Undo removes the most recent additions, which sit at or near the end.
+    private static void removeFromEnd(List<TransactionRecord> history, TransactionRecord tx) {
+        for (int i = history.size() - 1; i >= 0; i--) {
+            if (history.get(i) == tx) {
+                history.remove(i);
+                return;
+            }
+        }
+    }
+}
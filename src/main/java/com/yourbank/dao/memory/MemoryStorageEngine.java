@@ -0,0 +1,313 @@
+package com.yourbank.dao.memory;
+
+import com.yourbank.dao.AccountDao;
+import com.yourbank.dao.AdminDao;
+import com.yourbank.dao.PayeeDao;
+import com.yourbank.dao.SnapshotDao;
+import com.yourbank.dao.StorageEngine;
+import com.yourbank.dao.TransactionDao;
+import com.yourbank.model.Admin;
+import com.yourbank.util.DatabaseUtil;
+
+import java.io.IOException;
+import java.math.RoundingMode;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Savepoint;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+
+/**
+ * Keeps every account, ledger entry, admin and payee in memory and makes commits durable through a
+ * {@link WriteAheadLog}, which is replayed to rebuild the state on startup. Without a log directory
+ * nothing is persisted, which suits benchmarks and throwaway simulations.
+ *
+ * <p>Writers are serialised by one read/write lock: a transaction holds the write lock from begin until commit,
+ * so every transaction is trivially serializable and row locks are unnecessary. The lock is released before
+ * waiting for the fsync, so the next transaction can run while this one's log frame is being flushed.
+ */
+public class MemoryStorageEngine implements StorageEngine {
+
+    interface Mutation<T> {
+        T apply(MemoryTransaction tx) throws SQLException;
+    }
+
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final MemoryState state = new MemoryState();
+    private final WriteAheadLog wal;
+    private final ThreadLocal<MemoryTransaction> current = new ThreadLocal<>();
+
+    private final AccountDao accounts = new MemoryAccountDao(this);
+    private final TransactionDao transactions = new MemoryTransactionDao(this);
+    private final AdminDao admins = new MemoryAdminDao(this);
+    private final PayeeDao payees = new MemoryPayeeDao(this);
+    private final SnapshotDao snapshots = new MemorySnapshotDao(this);
+
+
+    public MemoryStorageEngine(Path walDirectory, boolean syncCommits, int flushIntervalMicros) throws IOException {
+        if (walDirectory == null) {
+            this.wal = null;
+        } else {
+            Path file = walDirectory.resolve("ledger.wal");
+            RoundingMode legacyRounding = legacyRounding();
+            WriteAheadLog.upgrade(file, frame -> WalCodec.upgradeFromVersion1(frame, legacyRounding));
+            this.wal = new WriteAheadLog(file, syncCommits, flushIntervalMicros);
+            long start = System.nanoTime();
+            long frames = wal.replay(frame -> WalCodec.apply(frame, state));
+            System.out.println("Recovered " + state.accounts.size() + " account(s) and " + state.allHistory.size() +
+                    " ledger entries from " + frames + " log frame(s) in " + (System.nanoTime() - start) / 1_000_000 + "ms.");
+        }
+        bootstrapAdmin();
+    }
+
+
+    @Override
+    public AccountDao accounts() {
+        return accounts;
+    }
+
+    @Override
+    public TransactionDao transactions() {
+        return transactions;
+    }
+
+    @Override
+    public AdminDao admins() {
+        return admins;
+    }
+
+    @Override
+    public PayeeDao payees() {
+        return payees;
+    }
+
+    @Override
+    public SnapshotDao snapshots() {
+        return snapshots;
+    }
+
+
+    // Isolation levels are accepted and ignored: holding the write lock is already serializable.
+    @Override
+    public void beginTransaction(int isolation) {
+        if (current.get() != null) {
+            throw new IllegalStateException("A transaction is already active on this thread.");
+        }
+        lock.writeLock().lock();
+        current.set(new MemoryTransaction(state));
+    }
+
+    @Override
+    public void commitTransaction() throws SQLException {
+        MemoryTransaction tx = current.get();
+        if (tx == null) {
+            throw new IllegalStateException("No transaction is active on this thread.");
+        }
+        long position = log(tx);
+        current.remove();
+        lock.writeLock().unlock();
+        awaitDurable(position);
+        for (Runnable action : tx.afterCommitActions()) {
+            runAfterCommit(action);
+        }
+    }
+
+    @Override
+    public void rollbackTransaction() {
+        MemoryTransaction tx = current.get();
+        if (tx != null) {
+            tx.rollbackAll();
+        }
+    }
+
+    @Override
+    public void endTransaction() {
+        MemoryTransaction tx = current.get();
+        if (tx != null) {
+            tx.rollbackAll();
+            current.remove();
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isTransactionActive() {
+        return current.get() != null;
+    }
+
+    @Override
+    public void afterCommit(Runnable action) {
+        MemoryTransaction tx = current.get();
+        if (tx == null) {
+            runAfterCommit(action);
+        } else {
+            tx.afterCommit(action);
+        }
+    }
+
+    @Override
+    public Savepoint setSavepoint() throws SQLException {
+        return activeTransaction().savepoint();
+    }
+
+    @Override
+    public void rollbackToSavepoint(Savepoint savepoint) throws SQLException {
+        activeTransaction().rollbackTo(savepoint);
+    }
+
+
+    @Override
+    public void close() {
+        if (wal != null) {
+            try {
+                wal.close();
+            } catch (IOException e) {
+                System.err.println("Error closing write-ahead log: " + e.getMessage());
+            }
+        }
+    }
+
+
+    // Callers must hold the lock, through read() or write().
+    MemoryState state() {
+        return state;
+    }
+
+
+    <T> T read(Supplier<T> reader) {
+        lock.readLock().lock();
+        try {
+            return reader.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+
+    /** Runs a change inside the thread's transaction, or as a transaction of its own if there is none. */
+    <T> T write(Mutation<T> mutation) throws SQLException {
+        MemoryTransaction tx = current.get();
+        if (tx != null) {
+            return mutation.apply(tx);
+        }
+
+        T result;
+        long position;
+        lock.writeLock().lock();
+        try {
+            tx = new MemoryTransaction(state);
+            try {
+                result = mutation.apply(tx);
+            } catch (SQLException | RuntimeException e) {
+                tx.rollbackAll();
+                throw e;
+            }
+            position = log(tx);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        awaitDurable(position);
+        return result;
+    }
+
+
+    /** The error MySQL reports for a unique key violation, so callers handle both engines alike. */
+    static SQLException duplicateEntry(String message) {
+        return new SQLIntegrityConstraintViolationException(message, "23000", 1062);
+    }
+
+
+    private MemoryTransaction activeTransaction() throws SQLException {
+        MemoryTransaction tx = current.get();
+        if (tx == null) {
+            throw new SQLException("No transaction is active on this thread.");
+        }
+        return tx;
+    }
+
+
+    // Called with the write lock held, so frames reach the log in the order the changes were made.
+    private long log(MemoryTransaction tx) throws SQLException {
+        if (wal == null || tx.isEmpty()) {
+            return -1;
+        }
+        try {
+            return wal.append(tx.buffer(), tx.size());
+        } catch (IOException e) {
+            tx.rollbackAll();
+            throw new SQLException("Could not write to the write-ahead log: " + e.getMessage(), e);
+        }
+    }
+
+
+    // The transaction is already committed, so a failing action must not look like a failed commit.
+    private static void runAfterCommit(Runnable action) {
+        try {
+            action.run();
+        } catch (RuntimeException e) {
+            System.err.println("Error in post-commit action: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+
+    private void awaitDurable(long position) throws SQLException {
+        if (position < 0) {
+            return;
+        }
+        try {
+            wal.awaitDurable(position);
+        } catch (IOException e) {
+            throw new SQLException("Commit may not be durable: " + e.getMessage(), e);
+        }
+    }
+
+
+    // Unset means legacy amounts that need rounding stop the upgrade, so nobody's balance changes unannounced.
+    private static RoundingMode legacyRounding() throws IOException {
+        String mode = DatabaseUtil.getProperty("MEMORY_WAL_LEGACY_ROUNDING");
+        if (mode == null || mode.isBlank()) {
+            return null;
+        }
+        try {
+            RoundingMode rounding = RoundingMode.valueOf(mode.trim().toUpperCase());
+            if (rounding != RoundingMode.UNNECESSARY) {
+                return rounding;
+            }
+        } catch (IllegalArgumentException e) {
+            // fall through
+        }
+        throw new IOException("MEMORY_WAL_LEGACY_ROUNDING must be one of HALF_EVEN, HALF_UP, HALF_DOWN, UP, DOWN,"
+                + " CEILING or FLOOR, not '" + mode + "'.");
+    }
+
+
+    // There is no SQL client to insert the first admin with, so it can come from db.properties instead.
+    private void bootstrapAdmin() {
+        String username = DatabaseUtil.getProperty("MEMORY_ADMIN_USERNAME");
+        String passwordHash = DatabaseUtil.getProperty("MEMORY_ADMIN_PASSWORD_HASH");
+        if (username == null || username.isBlank() || passwordHash == null || passwordHash.isBlank()) {
+            return;
+        }
+
+        try {
+            if (admins.findAdminByUsername(username) == null) {
+                admins.createAdmin(new Admin(
+                        "admin_" + username.toLowerCase(),
+                        username,
+                        passwordHash,
+                        DatabaseUtil.getProperty("MEMORY_ADMIN_EMAIL"),
+                        DatabaseUtil.getProperty("MEMORY_ADMIN_PHONE"),
+                        "Manager",
+                        DatabaseUtil.getProperty("BANK_NAME", "Global Bank Inc."),
+                        null
+                ));
+            }
+        } catch (SQLException e) {
+            System.err.println("Could not create the initial admin: " + e.getMessage());
+        }
+    }
+}
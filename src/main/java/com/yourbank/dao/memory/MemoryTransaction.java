@@ -0,0 +1,197 @@
+package com.yourbank.dao.memory;
+
+import com.yourbank.model.Account;
+import com.yourbank.model.Admin;
+import com.yourbank.model.BalanceSnapshot;
+import com.yourbank.model.Money;
+import com.yourbank.model.Payee;
+import com.yourbank.model.TransactionRecord;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * The changes one transaction has made to {@link MemoryState}: each is applied immediately (the engine's write
+ * lock keeps it private until commit), encoded for the write-ahead log, and paired with an undo step.
+ */
+final class MemoryTransaction {
+
+    private final MemoryState state;
+    private final OperationLog log = new OperationLog();
+    private final DataOutputStream out = new DataOutputStream(log);
+    private final List<Runnable> undo = new ArrayList<>();
+    private final List<Runnable> afterCommit = new ArrayList<>();
+    private int savepointCounter = 0;
+
+
+    MemoryTransaction(MemoryState state) {
+        this.state = state;
+    }
+
+
+    void putAccount(Account account) {
+        Account previous = state.putAccount(account);
+        undo.add(() -> state.restoreAccount(account.getAccountNumber(), previous));
+        record(() -> WalCodec.writePutAccount(out, account));
+    }
+
+    void setBalance(String accountNumber, Money balance) {
+        Money previous = state.setBalance(accountNumber, balance);
+        undo.add(() -> state.setBalance(accountNumber, previous));
+        record(() -> WalCodec.writeSetBalance(out, accountNumber, balance));
+    }
+
+    void addTransaction(TransactionRecord tx) {
+        state.addTransaction(tx);
+        undo.add(() -> state.removeTransaction(tx));
+        record(() -> WalCodec.writeAddTransaction(out, tx));
+    }
+
+    int removeTransactionsBetween(LocalDateTime from, LocalDateTime to, int limit) {
+        List<TransactionRecord> removed = state.removeTransactionsBetween(from, to, limit);
+        if (removed.isEmpty()) {
+            return 0;
+        }
+        undo.add(() -> removed.forEach(state::addTransaction));
+        record(() -> WalCodec.writeRemoveTransactionsBetween(out, from, to, removed.size()));
+        return removed.size();
+    }
+
+    void putSnapshot(BalanceSnapshot snapshot) {
+        BalanceSnapshot previous = state.putSnapshot(snapshot);
+        undo.add(() -> state.restoreSnapshot(snapshot.getAccountNumber(), snapshot.getCutoffAt(), previous));
+        record(() -> WalCodec.writePutSnapshot(out, snapshot));
+    }
+
+    void putAdmin(Admin admin) {
+        Admin previous = state.putAdmin(admin);
+        undo.add(() -> state.restoreAdmin(admin.getUsername(), previous));
+        record(() -> WalCodec.writePutAdmin(out, admin));
+    }
+
+    void putPayee(Payee payee) {
+        Payee previous = state.putPayee(payee);
+        undo.add(() -> state.restorePayee(payee.getPayeeId(), previous));
+        record(() -> WalCodec.writePutPayee(out, payee));
+    }
+
+    void removePayee(int payeeId) {
+        Payee previous = state.removePayee(payeeId);
+        undo.add(() -> state.restorePayee(payeeId, previous));
+        record(() -> WalCodec.writeRemovePayee(out, payeeId));
+    }
+
+    void setNextAccountNumber(long nextAccountNumber) {
+        long previous = state.nextAccountNumber;
+        state.nextAccountNumber = nextAccountNumber;
+        undo.add(() -> state.nextAccountNumber = previous);
+        record(() -> WalCodec.writeSetNextAccountNumber(out, nextAccountNumber));
+    }
+
+
+    void afterCommit(Runnable action) {
+        afterCommit.add(action);
+    }
+
+    List<Runnable> afterCommitActions() {
+        return afterCommit;
+    }
+
+
+    boolean isEmpty() {
+        return log.size() == 0;
+    }
+
+    byte[] buffer() {
+        return log.buffer();
+    }
+
+    int size() {
+        return log.size();
+    }
+
+
+    Savepoint savepoint() {
+        return new MemorySavepoint(++savepointCounter, undo.size(), log.size());
+    }
+
+    void rollbackTo(Savepoint savepoint) throws SQLException {
+        if (!(savepoint instanceof MemorySavepoint target) || target.undoSize > undo.size()) {
+            throw new SQLException("Savepoint does not belong to this transaction.");
+        }
+        undoDownTo(target.undoSize);
+        log.truncate(target.logSize);
+    }
+
+    void rollbackAll() {
+        undoDownTo(0);
+        log.truncate(0);
+        afterCommit.clear();
+    }
+
+
+    private void undoDownTo(int size) {
+        for (int i = undo.size() - 1; i >= size; i--) {
+            undo.remove(i).run();
+        }
+    }
+
+
+    private void record(LogWrite write) {
+        try {
+            write.run();
+        } catch (IOException e) {
+            // Writing to an in-memory buffer cannot fail.
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+    private interface LogWrite {
+        void run() throws IOException;
+    }
+
+
+    private static final class OperationLog extends ByteArrayOutputStream {
+
+        byte[] buffer() {
+            return buf;
+        }
+
+        void truncate(int size) {
+            count = size;
+        }
+    }
+
+
+    private static final class MemorySavepoint implements Savepoint {
+
+        private final int id;
+        private final int undoSize;
+        private final int logSize;
+
+        private MemorySavepoint(int id, int undoSize, int logSize) {
+            this.id = id;
+            this.undoSize = undoSize;
+            this.logSize = logSize;
+        }
+
+        @Override
+        public int getSavepointId() {
+            return id;
+        }
+
+        @Override
+        public String getSavepointName() throws SQLException {
+            throw new SQLException("Savepoint is not named.");
+        }
+    }
+}
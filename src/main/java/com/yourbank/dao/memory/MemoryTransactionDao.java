@@ -0,0 +1,186 @@
+package com.yourbank.dao.memory;
+
+import com.yourbank.dao.TransactionDao;
+import com.yourbank.model.TransactionCursor;
+import com.yourbank.model.TransactionRecord;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+
+class MemoryTransactionDao implements TransactionDao {
+
+    // Streams copy out this many entries per read lock, so a slow handler never holds up writers.
+    private static final int STREAM_CHUNK = 1000;
+
+    private final MemoryStorageEngine engine;
+
+
+    MemoryTransactionDao(MemoryStorageEngine engine) {
+        this.engine = engine;
+    }
+
+
+    @Override
+    public void createTransaction(TransactionRecord tx) throws SQLException {
+        TransactionRecord stored = copy(tx);
+        engine.write(memoryTx -> {
+            insert(memoryTx, stored);
+            return null;
+        });
+    }
+
+
+    @Override
+    public void createTransactions(List<TransactionRecord> transactions) throws SQLException {
+        List<TransactionRecord> stored = new ArrayList<>(transactions.size());
+        for (TransactionRecord tx : transactions) {
+            stored.add(copy(tx));
+        }
+        engine.write(memoryTx -> {
+            for (TransactionRecord tx : stored) {
+                insert(memoryTx, tx);
+            }
+            return null;
+        });
+    }
+
+
+    @Override
+    public List<TransactionRecord> findTransactionsForAccount(String accountNumber, TransactionCursor after,
+                                                              int pageSize) {
+        TransactionRecord bound = after == null ? null : probe(after);
+        return engine.read(() -> newestFirst(engine.state().historyByAccount.get(accountNumber), bound, pageSize));
+    }
+
+
+    @Override
+    public void streamTransactionsForAccount(String accountNumber, Consumer<TransactionRecord> handler) {
+        stream(bound -> engine.read(() ->
+                newestFirst(engine.state().historyByAccount.get(accountNumber), bound, STREAM_CHUNK)), handler);
+    }
+
+
+    @Override
+    public List<TransactionRecord> findMiniStatement(String accountNumber, int limit) {
+        return findTransactionsForAccount(accountNumber, null, limit);
+    }
+
+
+    @Override
+    public void streamAllTransactions(Consumer<TransactionRecord> handler) {
+        stream(bound -> engine.read(() -> newestFirst(engine.state().allHistory, bound, STREAM_CHUNK)), handler);
+    }
+
+
+    @Override
+    public void streamTransactionsBetween(LocalDateTime from, LocalDateTime to, Consumer<TransactionRecord> handler) {
+        stream(bound -> engine.read(() ->
+                oldestFirst(engine.state().allHistory, bound, from, to, STREAM_CHUNK)), handler);
+    }
+
+
+    @Override
+    public void streamTransactionsForAccountSince(String accountNumber, LocalDateTime since,
+                                                  Consumer<TransactionRecord> handler) {
+        stream(bound -> engine.read(() ->
+                oldestFirst(engine.state().historyByAccount.get(accountNumber), bound, since, null, STREAM_CHUNK)), handler);
+    }
+
+
+    @Override
+    public int deleteTransactionsBetween(LocalDateTime from, LocalDateTime to, int limit) throws SQLException {
+        return engine.write(tx -> tx.removeTransactionsBetween(from, to, limit));
+    }
+
+
+    private void insert(MemoryTransaction memoryTx, TransactionRecord tx) throws SQLException {
+        List<TransactionRecord> all = engine.state().allHistory;
+        int index = MemoryState.lastIndexBefore(all, tx) + 1;
+        if (index < all.size() && all.get(index).getTxId().equals(tx.getTxId())) {
+            throw MemoryStorageEngine.duplicateEntry("Duplicate entry '" + tx.getTxId() + "' for key 'transactions.PRIMARY'");
+        }
+        memoryTx.addTransaction(tx);
+    }
+
+
+    private static void stream(PageReader reader, Consumer<TransactionRecord> handler) {
+        TransactionRecord bound = null;
+        while (true) {
+            List<TransactionRecord> page = reader.read(bound);
+            for (TransactionRecord tx : page) {
+                handler.accept(tx);
+            }
+            if (page.size() < STREAM_CHUNK) {
+                return;
+            }
+            bound = page.get(page.size() - 1);
+        }
+    }
+
+
+    // Walks forwards from the first entry after bound (or at/after from), stopping at the first at/after to.
+    private static List<TransactionRecord> oldestFirst(List<TransactionRecord> history, TransactionRecord bound,
+                                                       LocalDateTime from, LocalDateTime to, int limit) {
+        List<TransactionRecord> page = new ArrayList<>();
+        if (history == null) {
+            return page;
+        }
+        int start;
+        if (bound != null) {
+            start = MemoryState.firstIndexAfter(history, bound);
+        } else if (from != null) {
+            start = MemoryState.lastIndexBefore(history, new TransactionRecord(new UUID(0, 0), null, null, null, null, from)) + 1;
+        } else {
+            start = 0;
+        }
+        for (int i = start; i < history.size() && page.size() < limit; i++) {
+            TransactionRecord tx = history.get(i);
+            if (to != null && !tx.getCreatedAt().isBefore(to)) {
+                break;
+            }
+            page.add(copy(tx));
+        }
+        return page;
+    }
+
+
+    // Walks backwards from the newest entry older than bound; the list is sorted oldest-first.
+    private static List<TransactionRecord> newestFirst(List<TransactionRecord> history, TransactionRecord bound,
+                                                       int limit) {
+        List<TransactionRecord> page = new ArrayList<>();
+        if (history == null) {
+            return page;
+        }
+        for (int i = MemoryState.lastIndexBefore(history, bound); i >= 0 && page.size() < limit; i--) {
+            page.add(copy(history.get(i)));
+        }
+        return page;
+    }
+
+
+    private static TransactionRecord probe(TransactionCursor cursor) {
+        return new TransactionRecord(cursor.getTxId(), null, null, null, null, cursor.getCreatedAt());
+    }
+
+
+    private static TransactionRecord copy(TransactionRecord tx) {
+        return new TransactionRecord(
+                tx.getTxId(),
+                tx.getTxType(),
+                tx.getAmount(),
+                tx.getFromAccountNumber(),
+                tx.getToAccountNumber(),
+                tx.getCreatedAt()
+        );
+    }
+
+
+    private interface PageReader {
+        List<TransactionRecord> read(TransactionRecord bound);
+    }
+}
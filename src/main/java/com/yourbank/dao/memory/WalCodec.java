@@ -0,0 +1,298 @@
+package com.yourbank.dao.memory;
+
+import com.yourbank.model.Account;
+import com.yourbank.model.Account.AccountStatus;
+import com.yourbank.model.Account.AccountType;
+import com.yourbank.model.Account.SecurityLevel;
+import com.yourbank.model.Admin;
+import com.yourbank.model.BalanceSnapshot;
+import com.yourbank.model.Money;
+import com.yourbank.model.Payee;
+import com.yourbank.model.TransactionRecord;
+import com.yourbank.model.TransactionRecord.TxType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+
+/**
+ * Encodes state changes as write-ahead-log operations and re-applies them on recovery.
+ * Each operation is a type byte followed by its fields; one committed transaction is a run of operations.
+ * Amounts are written as {@code long} minor units at {@link Money#SCALE}, which is
+ * {@link WriteAheadLog#FORMAT_VERSION format} 2; format 1 wrote decimal strings and is converted by
+ * {@link #upgradeFromVersion1}.
+ */
+final class WalCodec {
+
+    interface MoneyReader {
+        Money read(DataInput in) throws IOException;
+    }
+
+    private static final byte PUT_ACCOUNT = 1;
+    private static final byte SET_BALANCE = 2;
+    private static final byte ADD_TRANSACTION = 3;
+    private static final byte PUT_ADMIN = 4;
+    private static final byte PUT_PAYEE = 5;
+    private static final byte REMOVE_PAYEE = 6;
+    private static final byte SET_NEXT_ACCOUNT_NUMBER = 7;
+    private static final byte PUT_SNAPSHOT = 8;
+    private static final byte REMOVE_OLDEST_TRANSACTIONS = 9;
+    private static final byte REMOVE_TRANSACTIONS_BETWEEN = 10;
+
+
+    private WalCodec() {}
+
+
+    static void writePutAccount(DataOutput out, Account account) throws IOException {
+        out.writeByte(PUT_ACCOUNT);
+        out.writeUTF(account.getAccountNumber());
+        writeNullable(out, account.getHolderName());
+        writeNullable(out, account.getPasswordHash());
+        writeNullable(out, account.getEmail());
+        writeNullable(out, account.getPhoneNumber());
+        writeNullable(out, account.getFullAddress());
+        writeNullable(out, account.getPanCardNumber());
+        writeNullable(out, account.getAadharCardNumber());
+        writeNullable(out, account.getIfscCode());
+        writeNullable(out, account.getAccountType() == null ? null : account.getAccountType().name());
+        writeNullable(out, account.getSecurityLevel() == null ? null : account.getSecurityLevel().name());
+        writeNullable(out, account.getAccountStatus() == null ? null : account.getAccountStatus().name());
+        out.writeLong(account.getBalance().getMinorUnits());
+        writeNullable(out, account.getCreatedAt() == null ? null : account.getCreatedAt().toString());
+        out.writeLong(account.getVersion());
+    }
+
+    static void writeSetBalance(DataOutput out, String accountNumber, Money balance) throws IOException {
+        out.writeByte(SET_BALANCE);
+        out.writeUTF(accountNumber);
+        out.writeLong(balance.getMinorUnits());
+    }
+
+    static void writeAddTransaction(DataOutput out, TransactionRecord tx) throws IOException {
+        out.writeByte(ADD_TRANSACTION);
+        out.writeLong(tx.getTxId().getMostSignificantBits());
+        out.writeLong(tx.getTxId().getLeastSignificantBits());
+        out.writeUTF(tx.getTxType().name());
+        out.writeLong(tx.getAmount().getMinorUnits());
+        writeNullable(out, tx.getFromAccountNumber());
+        writeNullable(out, tx.getToAccountNumber());
+        out.writeUTF(tx.getCreatedAt().toString());
+    }
+
+    static void writePutAdmin(DataOutput out, Admin admin) throws IOException {
+        out.writeByte(PUT_ADMIN);
+        writeNullable(out, admin.getAdminId());
+        out.writeUTF(admin.getUsername());
+        writeNullable(out, admin.getPasswordHash());
+        writeNullable(out, admin.getEmail());
+        writeNullable(out, admin.getPhoneNumber());
+        writeNullable(out, admin.getRole());
+        writeNullable(out, admin.getAssignedBank());
+        writeNullable(out, admin.getBankBranchIfsc());
+    }
+
+    static void writePutPayee(DataOutput out, Payee payee) throws IOException {
+        out.writeByte(PUT_PAYEE);
+        out.writeInt(payee.getPayeeId());
+        writeNullable(out, payee.getOwnerAccountNumber());
+        writeNullable(out, payee.getPayeeName());
+        writeNullable(out, payee.getPayeeAccountNumber());
+        writeNullable(out, payee.getPayeeIfscCode());
+    }
+
+    static void writeRemovePayee(DataOutput out, int payeeId) throws IOException {
+        out.writeByte(REMOVE_PAYEE);
+        out.writeInt(payeeId);
+    }
+
+    static void writeSetNextAccountNumber(DataOutput out, long nextAccountNumber) throws IOException {
+        out.writeByte(SET_NEXT_ACCOUNT_NUMBER);
+        out.writeLong(nextAccountNumber);
+    }
+
+    static void writePutSnapshot(DataOutput out, BalanceSnapshot snapshot) throws IOException {
+        out.writeByte(PUT_SNAPSHOT);
+        out.writeUTF(snapshot.getAccountNumber());
+        out.writeUTF(snapshot.getCutoffAt().toString());
+        out.writeLong(snapshot.getBalance().getMinorUnits());
+        out.writeUTF(snapshot.getCreatedAt().toString());
+    }
+
+    // Replays deterministically: the log holds every earlier change, so the same entries are the oldest again.
+    static void writeRemoveTransactionsBetween(DataOutput out, LocalDateTime from, LocalDateTime to, int count)
+            throws IOException {
+        out.writeByte(REMOVE_TRANSACTIONS_BETWEEN);
+        writeNullable(out, from == null ? null : from.toString());
+        out.writeUTF(to.toString());
+        out.writeInt(count);
+    }
+
+
+    /** Applies every operation in one committed frame to {@code state}. */
+    static void apply(DataInputStream in, MemoryState state) throws IOException {
+        while (in.available() > 0) {
+            byte type = in.readByte();
+            switch (type) {
+                case PUT_ACCOUNT -> state.putAccount(readAccount(in, WalCodec::readMoney));
+                case SET_BALANCE -> state.setBalance(in.readUTF(), readMoney(in));
+                case ADD_TRANSACTION -> state.addTransaction(readTransaction(in, WalCodec::readMoney));
+                case PUT_ADMIN -> state.putAdmin(readAdmin(in));
+                case PUT_PAYEE -> state.putPayee(readPayee(in));
+                case REMOVE_PAYEE -> state.removePayee(in.readInt());
+                case SET_NEXT_ACCOUNT_NUMBER -> state.nextAccountNumber = in.readLong();
+                case PUT_SNAPSHOT -> state.putSnapshot(readSnapshot(in, WalCodec::readMoney));
+                case REMOVE_OLDEST_TRANSACTIONS -> state.removeTransactionsBetween(null, LocalDateTime.parse(in.readUTF()), in.readInt());
+                case REMOVE_TRANSACTIONS_BETWEEN -> state.removeTransactionsBetween(readNullableTime(in),
+                        LocalDateTime.parse(in.readUTF()), in.readInt());
+                default -> throw new IOException("Unknown write-ahead log operation " + type);
+            }
+        }
+    }
+
+
+    /**
+     * Re-encodes one format 1 frame in the current format. A legacy amount with more than {@link Money#SCALE}
+     * decimal places is rounded with {@code legacyRounding}, or, when that is null, fails the upgrade.
+     */
+    static byte[] upgradeFromVersion1(DataInputStream in, RoundingMode legacyRounding) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(in.available() + 64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        MoneyReader money = legacy -> readDecimalMoney(legacy, legacyRounding);
+
+        while (in.available() > 0) {
+            byte type = in.readByte();
+            switch (type) {
+                case PUT_ACCOUNT -> writePutAccount(out, readAccount(in, money));
+                case SET_BALANCE -> writeSetBalance(out, in.readUTF(), money.read(in));
+                case ADD_TRANSACTION -> writeAddTransaction(out, readTransaction(in, money));
+                case PUT_ADMIN -> writePutAdmin(out, readAdmin(in));
+                case PUT_PAYEE -> writePutPayee(out, readPayee(in));
+                case REMOVE_PAYEE -> writeRemovePayee(out, in.readInt());
+                case SET_NEXT_ACCOUNT_NUMBER -> writeSetNextAccountNumber(out, in.readLong());
+                case PUT_SNAPSHOT -> writePutSnapshot(out, readSnapshot(in, money));
+                case REMOVE_OLDEST_TRANSACTIONS -> writeRemoveTransactionsBetween(out, null, LocalDateTime.parse(in.readUTF()), in.readInt());
+                default -> throw new IOException("Unknown write-ahead log operation " + type);
+            }
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+
+    private static Account readAccount(DataInput in, MoneyReader money) throws IOException {
+        String accountNumber = in.readUTF();
+        String holderName = readNullable(in);
+        String passwordHash = readNullable(in);
+        String email = readNullable(in);
+        String phoneNumber = readNullable(in);
+        String fullAddress = readNullable(in);
+        String pan = readNullable(in);
+        String aadhar = readNullable(in);
+        String ifsc = readNullable(in);
+        String accountType = readNullable(in);
+        String securityLevel = readNullable(in);
+        String accountStatus = readNullable(in);
+        Money balance = money.read(in);
+        String createdAt = readNullable(in);
+        long version = in.readLong();
+
+        return new Account(
+                accountNumber,
+                holderName,
+                passwordHash,
+                email,
+                phoneNumber,
+                fullAddress,
+                pan,
+                aadhar,
+                ifsc,
+                accountType == null ? null : AccountType.valueOf(accountType),
+                securityLevel == null ? null : SecurityLevel.valueOf(securityLevel),
+                accountStatus == null ? null : AccountStatus.valueOf(accountStatus),
+                balance,
+                createdAt == null ? null : LocalDateTime.parse(createdAt),
+                version
+        );
+    }
+
+    private static TransactionRecord readTransaction(DataInput in, MoneyReader money) throws IOException {
+        UUID txId = new UUID(in.readLong(), in.readLong());
+        TxType type = TxType.valueOf(in.readUTF());
+        Money amount = money.read(in);
+        String from = readNullable(in);
+        String to = readNullable(in);
+        LocalDateTime createdAt = LocalDateTime.parse(in.readUTF());
+        return new TransactionRecord(txId, type, amount, from, to, createdAt);
+    }
+
+    private static BalanceSnapshot readSnapshot(DataInput in, MoneyReader money) throws IOException {
+        String accountNumber = in.readUTF();
+        LocalDateTime cutoffAt = LocalDateTime.parse(in.readUTF());
+        Money balance = money.read(in);
+        return new BalanceSnapshot(accountNumber, cutoffAt, balance, LocalDateTime.parse(in.readUTF()));
+    }
+
+    private static Admin readAdmin(DataInput in) throws IOException {
+        String adminId = readNullable(in);
+        String username = in.readUTF();
+        return new Admin(adminId, username, readNullable(in), readNullable(in), readNullable(in),
+                readNullable(in), readNullable(in), readNullable(in));
+    }
+
+    private static Payee readPayee(DataInput in) throws IOException {
+        int payeeId = in.readInt();
+        return new Payee(payeeId, readNullable(in), readNullable(in), readNullable(in), readNullable(in));
+    }
+
+
+    private static Money readMoney(DataInput in) throws IOException {
+        return Money.ofMinor(in.readLong());
+    }
+
+
+    private static Money readDecimalMoney(DataInput in, RoundingMode rounding) throws IOException {
+        String text = in.readUTF();
+        BigDecimal amount = new BigDecimal(text);
+        if (amount.stripTrailingZeros().scale() > Money.SCALE) {
+            if (rounding == null) {
+                throw new IOException("The format 1 write-ahead log holds the amount " + text + ", which has more than "
+                        + Money.SCALE + " decimal places. Set MEMORY_WAL_LEGACY_ROUNDING to a rounding mode such as"
+                        + " HALF_EVEN to round such amounts while the log is upgraded.");
+            }
+            BigDecimal rounded = amount.setScale(Money.SCALE, rounding);
+            System.err.println("WARNING: Rounded legacy amount " + text + " to " + rounded.toPlainString()
+                    + " (" + rounding + ") while upgrading the write-ahead log.");
+            amount = rounded;
+        }
+        try {
+            return Money.of(amount);
+        } catch (ArithmeticException e) {
+            throw new IOException("The format 1 write-ahead log holds an unusable amount: " + e.getMessage(), e);
+        }
+    }
+
+
+    private static void writeNullable(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static LocalDateTime readNullableTime(DataInput in) throws IOException {
+        String value = readNullable(in);
+        return value == null ? null : LocalDateTime.parse(value);
+    }
+}
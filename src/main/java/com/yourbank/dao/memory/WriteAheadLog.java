@@ -0,0 +1,374 @@
+package com.yourbank.dao.memory;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32;
+
+
+/**
+ * Append-only log of committed transactions, one frame each: {@code [int length][int crc32][payload]}.
+ * The file starts with {@code [int magic][int format version]}; version 1 logs had no such header and are
+ * rewritten in the current format by {@link #upgrade} before they are opened.
+ *
+ * <p>Appends only copy into a memory buffer. A single flusher thread writes whatever has accumulated and
+ * fsyncs it in one go, so concurrent commits share an fsync. Committers that need durability wait in
+ * {@link #awaitDurable} for the flusher to pass their frame.
+ *
+ * <p>On recovery, a torn or corrupt frame at the tail (a crash mid-write) ends the log and is cut off. A damaged
+ * frame with more of the log after it stops startup instead, since cutting there would drop committed work.
+ */
+final class WriteAheadLog implements AutoCloseable {
+
+    /** Version 2 writes amounts as {@code long} minor units; version 1 wrote them as decimal strings. */
+    static final int FORMAT_VERSION = 2;
+
+    private static final int MAGIC = 0x4C57414C; // "LWAL"
+    private static final int FILE_HEADER_BYTES = 8;
+    private static final int HEADER_BYTES = 8;
+
+    interface FrameHandler {
+        void apply(DataInputStream frame) throws IOException;
+    }
+
+    interface FrameTranscoder {
+        byte[] transcode(DataInputStream frame) throws IOException;
+    }
+
+
+    private final Path file;
+    private final FileChannel channel;
+    private final boolean syncCommits;
+    private final long flushIntervalNanos;
+
+    private final Object lock = new Object();
+    private ByteBuffer pending = ByteBuffer.allocate(1 << 20);
+    private ByteBuffer spare = ByteBuffer.allocate(1 << 20);
+    private long appendedPosition;
+    private long durablePosition;
+    private IOException failure;
+    private boolean closed = false;
+    private Thread flusher;
+
+
+    WriteAheadLog(Path file, boolean syncCommits, long flushIntervalMicros) throws IOException {
+        this.file = file;
+        this.syncCommits = syncCommits;
+        this.flushIntervalNanos = TimeUnit.MICROSECONDS.toNanos(flushIntervalMicros);
+
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        if (channel.size() == 0) {
+            writeFileHeader(channel);
+            channel.force(false);
+        } else {
+            int version = readFormatVersion(channel, file);
+            if (version != FORMAT_VERSION) {
+                channel.close();
+                throw new IOException(file + " is in write-ahead log format " + version + ", but format "
+                        + FORMAT_VERSION + " is required.");
+            }
+        }
+    }
+
+
+    /**
+     * Rewrites a version 1 log in the current format, passing each intact frame through {@code transcoder}.
+     * The new log is written beside the old one and moved over it only once complete, and the original is kept
+     * as {@code <name>.v1}. Does nothing for a missing, empty or current log.
+     */
+    static void upgrade(Path file, FrameTranscoder transcoder) throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        Path upgraded = file.resolveSibling(file.getFileName() + ".upgrade");
+        Path original;
+        long frames;
+
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (in.size() == 0) {
+                return;
+            }
+            int version = readFormatVersion(in, file);
+            if (version == FORMAT_VERSION) {
+                return;
+            }
+            if (version > FORMAT_VERSION) {
+                throw new IOException(file + " is in write-ahead log format " + version
+                        + ", which is newer than the supported format " + FORMAT_VERSION + ".");
+            }
+            original = file.resolveSibling(file.getFileName() + ".v" + version);
+
+            long[] count = {0};
+            try (FileChannel out = FileChannel.open(upgraded, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                writeFileHeader(out);
+                // Version 1 logs have no file header, so their first frame starts at 0.
+                long end = readFrames(in, file, 0, frame -> {
+                    writeFrame(out, transcoder.transcode(frame));
+                    count[0]++;
+                });
+                if (end < in.size()) {
+                    System.err.println("WARNING: Discarding " + (in.size() - end) + " damaged byte(s) at the end of " + file);
+                }
+                out.force(false);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(upgraded);
+                throw e;
+            }
+            frames = count[0];
+        }
+
+        Files.copy(file, original, StandardCopyOption.REPLACE_EXISTING);
+        Files.move(upgraded, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        System.out.println("Upgraded " + frames + " frame(s) of " + file + " to log format " + FORMAT_VERSION
+                + "; the original is kept as " + original + ".");
+    }
+
+
+    /**
+     * Feeds every intact frame to {@code handler} in order, drops a damaged tail, and starts accepting appends.
+     * Returns the number of frames replayed.
+     */
+    long replay(FrameHandler handler) throws IOException {
+        long[] frames = {0};
+        long size = channel.size();
+        long position = readFrames(channel, file, FILE_HEADER_BYTES, frame -> {
+            handler.apply(frame);
+            frames[0]++;
+        });
+
+        if (position < size) {
+            System.err.println("WARNING: Discarding " + (size - position) + " damaged byte(s) at the end of " + file);
+            channel.truncate(position);
+        }
+        channel.position(position);
+        appendedPosition = position;
+        durablePosition = position;
+
+        flusher = new Thread(this::flushLoop, "wal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+        return frames[0];
+    }
+
+
+    /** Queues one frame and returns the log position that must be durable for it to be. */
+    long append(byte[] payload, int length) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, length);
+
+        synchronized (lock) {
+            if (failure != null) {
+                throw new IOException("Write-ahead log is unusable after an earlier failure.", failure);
+            }
+            if (closed) {
+                throw new IOException("Write-ahead log has been closed.");
+            }
+            if (pending.remaining() < HEADER_BYTES + length) {
+                ByteBuffer larger = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + HEADER_BYTES + length));
+                pending.flip();
+                larger.put(pending);
+                pending = larger;
+            }
+            pending.putInt(length).putInt((int) crc.getValue()).put(payload, 0, length);
+            appendedPosition += HEADER_BYTES + length;
+            lock.notifyAll();
+            return appendedPosition;
+        }
+    }
+
+
+    void awaitDurable(long position) throws IOException {
+        if (!syncCommits) {
+            return;
+        }
+        synchronized (lock) {
+            while (durablePosition < position && failure == null && !closed) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while waiting for the write-ahead log to be flushed.", e);
+                }
+            }
+            if (durablePosition < position) {
+                throw new IOException("Write-ahead log could not be flushed.", failure);
+            }
+        }
+    }
+
+
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            closed = true;
+            lock.notifyAll();
+        }
+        if (flusher != null) {
+            try {
+                flusher.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        channel.close();
+    }
+
+
+    private void flushLoop() {
+        while (true) {
+            ByteBuffer batch;
+            long batchEnd;
+
+            synchronized (lock) {
+                while (pending.position() == 0 && !closed) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (pending.position() == 0) {
+                    return;
+                }
+            }
+
+            if (flushIntervalNanos > 0) {
+                // Give more committers a chance to join this fsync.
+                LockSupport.parkNanos(flushIntervalNanos);
+            }
+
+            synchronized (lock) {
+                batch = pending;
+                pending = spare != null ? spare : ByteBuffer.allocate(batch.capacity());
+                spare = null;
+                batchEnd = appendedPosition;
+            }
+
+            try {
+                batch.flip();
+                while (batch.hasRemaining()) {
+                    channel.write(batch);
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                System.err.println("FATAL: Write-ahead log flush failed: " + e.getMessage());
+                synchronized (lock) {
+                    failure = e;
+                    lock.notifyAll();
+                }
+                return;
+            }
+
+            synchronized (lock) {
+                durablePosition = batchEnd;
+                batch.clear();
+                spare = batch;
+                lock.notifyAll();
+            }
+        }
+    }
+
+
+    /**
+     * Feeds every intact frame from {@code position} on to {@code handler} and returns where they end. Only a
+     * frame that runs to the end of the file may be damaged; anything else is corruption and throws.
+     */
+    private static long readFrames(FileChannel channel, Path file, long position, FrameHandler handler) throws IOException {
+        long size = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        CRC32 crc = new CRC32();
+
+        while (position + HEADER_BYTES <= size) {
+            header.clear();
+            readFully(channel, file, header, position);
+            header.flip();
+            int length = header.getInt();
+            int checksum = header.getInt();
+            if (length < 0) {
+                throw corruptFrame(file, position, "negative frame length " + length);
+            }
+            long end = position + HEADER_BYTES + length;
+            if (end > size) {
+                break;
+            }
+
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            readFully(channel, file, payload, position + HEADER_BYTES);
+            crc.reset();
+            crc.update(payload.array(), 0, length);
+            if ((int) crc.getValue() != checksum) {
+                if (end == size) {
+                    break;
+                }
+                throw corruptFrame(file, position, "checksum mismatch");
+            }
+
+            handler.apply(new DataInputStream(new ByteArrayInputStream(payload.array(), 0, length)));
+            position += HEADER_BYTES + length;
+        }
+        return position;
+    }
+
+
+    private static IOException corruptFrame(Path file, long position, String reason) {
+        return new IOException("Write-ahead log " + file + " is corrupt at offset " + position + " (" + reason
+                + ") and more of the log follows, so committed transactions would be lost by cutting it there. "
+                + "Restore the file from a backup or move it aside.");
+    }
+
+
+    // A file that does not start with the magic number predates the header, which arrived with version 2.
+    private static int readFormatVersion(FileChannel channel, Path file) throws IOException {
+        if (channel.size() < FILE_HEADER_BYTES) {
+            return 1;
+        }
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES);
+        readFully(channel, file, header, 0);
+        header.flip();
+        if (header.getInt() != MAGIC) {
+            return 1;
+        }
+        return header.getInt();
+    }
+
+
+    private static void writeFileHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES).putInt(MAGIC).putInt(FORMAT_VERSION).flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+    }
+
+
+    private static void writeFrame(FileChannel channel, byte[] payload) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer frame = ByteBuffer.allocate(HEADER_BYTES + payload.length)
+                .putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+        while (frame.hasRemaining()) {
+            channel.write(frame);
+        }
+    }
+
+
+    private static void readFully(FileChannel channel, Path file, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of " + file);
+            }
+        }
+    }
+}
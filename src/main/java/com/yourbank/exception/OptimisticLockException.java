@@ -0,0 +1,8 @@
+package com.yourbank.exception;
+
+public class OptimisticLockException extends Exception {
+
+    public OptimisticLockException(String message) {
+        super(message);
+    }
+}
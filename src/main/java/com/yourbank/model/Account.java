@@ -7,7 +7,6 @@ import lombok.Setter;
 import lombok.ToString;
 import lombok.EqualsAndHashCode;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Getter
@@ -32,8 +31,9 @@ public class Account {
     private SecurityLevel securityLevel;
     private AccountStatus accountStatus;
 
-    private BigDecimal balance;
+    private Money balance;
     private LocalDateTime createdAt;
+    private long version;
 
     public enum AccountType {
         SAVINGS,
@@ -0,0 +1,21 @@
+package com.yourbank.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+
+/**
+ * The handful of account columns needed for list views and balance checks, without credentials or identity documents.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class AccountSummary {
+
+    private final String accountNumber;
+    private final String holderName;
+    private final String email;
+    private final Account.AccountStatus accountStatus;
+    private final Money balance;
+}
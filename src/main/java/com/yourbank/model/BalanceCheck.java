@@ -0,0 +1,30 @@
+package com.yourbank.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+
+/**
+ * Result of recomputing a balance as its opening snapshot plus the ledger entries since, compared with
+ * the stored balance. {@code snapshotCutoff} is null when there is no snapshot and the full history was replayed.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class BalanceCheck {
+
+    private final String accountNumber;
+    private final LocalDateTime snapshotCutoff;
+    private final Money openingBalance;
+    private final long entriesReplayed;
+    private final Money expectedBalance;
+    private final Money actualBalance;
+
+
+    public boolean matches() {
+        return actualBalance != null && expectedBalance.compareTo(actualBalance) == 0;
+    }
+}
@@ -0,0 +1,22 @@
+package com.yourbank.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+
+/**
+ * An account's balance after every ledger entry created before {@code cutoffAt}.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class BalanceSnapshot {
+
+    private final String accountNumber;
+    private final LocalDateTime cutoffAt;
+    private final Money balance;
+    private final LocalDateTime createdAt;
+}
@@ -0,0 +1,32 @@
+package com.yourbank.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+
+/**
+ * Outcome of one ledger compaction. When {@code mismatches} is not empty, no snapshot was written and
+ * nothing was deleted.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class CompactionResult {
+
+    private final LocalDateTime cutoff;
+    private final Path archiveDirectory;
+    private final long archivedEntries;
+    private final int snapshotsWritten;
+    private final long deletedEntries;
+    private final List<BalanceCheck> mismatches;
+
+
+    public boolean isCompleted() {
+        return mismatches.isEmpty();
+    }
+}
@@ -0,0 +1,27 @@
+package com.yourbank.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+
+/**
+ * Counts and sums of ledger entries by type over a range of the ledger, as produced by an audit scan.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class LedgerTotals {
+
+    private final long entries;
+    private final long deposits;
+    private final Money depositTotal;
+    private final long withdrawals;
+    private final Money withdrawalTotal;
+    private final long transfers;
+    private final Money transferTotal;
+    private final LocalDateTime firstEntryAt;
+    private final LocalDateTime lastEntryAt;
+}
@@ -0,0 +1,125 @@
+package com.yourbank.model;
+
+import java.math.BigDecimal;
+
+
+/**
+ * An amount of money as a {@code long} count of minor units (cents/paise) at a fixed {@link #SCALE}.
+ * Balances and ledger amounts are carried as {@code Money} through the services and DAOs, so comparing and
+ * adding them never allocates a {@code BigDecimal}; {@code BigDecimal} is only used at the edges (JDBC, JSON,
+ * console input). Arithmetic throws {@link ArithmeticException} rather than silently overflowing.
+ */
+public final class Money implements Comparable<Money> {
+
+    public static final int SCALE = 2;
+    public static final Money ZERO = new Money(0);
+
+    // Long.MAX_VALUE minor units is 19 digits, so no representable amount has more than 17 before the point.
+    private static final int MAX_INTEGER_DIGITS = Long.toString(Long.MAX_VALUE).length() - SCALE;
+    private static final int MAX_INPUT_SCALE = 18;
+
+    private final long minorUnits;
+
+
+    private Money(long minorUnits) {
+        this.minorUnits = minorUnits;
+    }
+
+
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits);
+    }
+
+
+    /**
+     * Converts exactly: trailing zeros beyond {@link #SCALE} are fine, but any non-zero fraction of a minor unit
+     * (or an amount that does not fit in a {@code long}) throws {@link ArithmeticException}.
+     *
+     * <p>The size check comes first and is cheap: rescaling something like {@code 1e10000000} would otherwise
+     * spend seconds building a ten-million-digit number only to reject it.
+     */
+    public static Money of(BigDecimal amount) {
+        if (amount == null) {
+            return null;
+        }
+        if ((long) amount.precision() - amount.scale() > MAX_INTEGER_DIGITS || amount.scale() > MAX_INPUT_SCALE) {
+            throw new ArithmeticException("Amount with " + amount.precision() + " digits and scale " + amount.scale()
+                    + " is out of range.");
+        }
+        try {
+            return ofMinor(amount.setScale(SCALE).unscaledValue().longValueExact());
+        } catch (ArithmeticException e) {
+            throw new ArithmeticException("Amount " + amount.toPlainString() + " cannot be represented with "
+                    + SCALE + " decimal places.");
+        }
+    }
+
+
+    public static Money parse(String amount) {
+        return of(new BigDecimal(amount));
+    }
+
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+
+    public Money minus(Money other) {
+        return ofMinor(Math.subtractExact(minorUnits, other.minorUnits));
+    }
+
+
+    public Money negate() {
+        return ofMinor(Math.negateExact(minorUnits));
+    }
+
+
+    public boolean isPositive() {
+        return minorUnits > 0;
+    }
+
+
+    public boolean isNegative() {
+        return minorUnits < 0;
+    }
+
+
+    public boolean isLessThan(Money other) {
+        return minorUnits < other.minorUnits;
+    }
+
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Money other && minorUnits == other.minorUnits;
+    }
+
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minorUnits);
+    }
+
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
@@ -0,0 +1,27 @@
+package com.yourbank.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+
+/**
+ * Position in a newest-first transaction listing. The next page starts strictly after this
+ * (created_at, tx_id) pair, so paging never skips or repeats rows however large the table grows.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class TransactionCursor {
+
+    private final LocalDateTime createdAt;
+    private final UUID txId;
+
+
+    public static TransactionCursor after(TransactionRecord last) {
+        return new TransactionCursor(last.getCreatedAt(), last.getTxId());
+    }
+}
@@ -7,8 +7,8 @@ import lombok.Setter;
 import lombok.ToString;
 import lombok.EqualsAndHashCode;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 
 @Getter
@@ -19,9 +19,9 @@ import java.time.LocalDateTime;
 @EqualsAndHashCode(of = "txId")
 public class TransactionRecord {
 
-    private String txId;
+    private UUID txId;
     private TxType txType;
-    private BigDecimal amount;
+    private Money amount;
     private String fromAccountNumber;
     private String toAccountNumber;
     private LocalDateTime createdAt;
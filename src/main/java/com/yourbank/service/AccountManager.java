@@ -2,53 +2,121 @@ package com.yourbank.service;
 
 import com.yourbank.dao.AccountDao;
 import com.yourbank.dao.AdminDao;
+import com.yourbank.dao.CachedAccountDao;
+import com.yourbank.dao.JournalingTransactionDao;
 import com.yourbank.dao.PayeeDao;
+import com.yourbank.dao.StorageEngine;
 import com.yourbank.dao.TransactionDao;
+import com.yourbank.dao.journal.JournalCursor;
+import com.yourbank.dao.journal.TransactionJournal;
 import com.yourbank.exception.AccountNotFoundException;
 import com.yourbank.exception.InsufficientFundsException;
+import com.yourbank.exception.OptimisticLockException;
 import com.yourbank.exception.ValidationException;
 import com.yourbank.model.Account;
 import com.yourbank.model.Account.AccountStatus;
 import com.yourbank.model.Account.SecurityLevel;
+import com.yourbank.model.AccountSummary;
 import com.yourbank.model.Admin;
+import com.yourbank.model.BalanceCheck;
+import com.yourbank.model.CompactionResult;
+import com.yourbank.model.LedgerTotals;
+import com.yourbank.model.Money;
 import com.yourbank.model.Payee;
+import com.yourbank.model.TransactionCursor;
 import com.yourbank.model.TransactionRecord;
 import com.yourbank.model.TransactionRecord.TxType;
 import com.yourbank.util.DatabaseUtil;
+import com.yourbank.util.Metrics;
 import com.yourbank.util.OtpService;
+import com.yourbank.util.OtpStore;
+import com.yourbank.util.PasswordHasher;
 import com.yourbank.util.SecurityUtil;
+import com.yourbank.util.TransactionIdGenerator;
 import com.yourbank.util.ValidationUtil;
 
-import java.math.BigDecimal;
-import java.sql.Connection;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.sql.SQLException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
 
 
 public class AccountManager {
 
-    private AccountDao accountDao;
-    private AdminDao adminDao;
-    private TransactionDao transactionDao;
-    private PayeeDao payeeDao;
-    private Connection connection;
+    private static final int MAX_UPDATE_ATTEMPTS = 5;
+    private static final long UPDATE_BACKOFF_BASE_MS = 10;
+    private static final int MAX_TRANSFER_ATTEMPTS = 5;
+    private static final int MAX_ACCOUNT_NUMBER_ATTEMPTS = 3;
+
+    private final AccountDao accountDao;
+    private final AdminDao adminDao;
+    private final TransactionDao transactionDao;
+    private final PayeeDao payeeDao;
+    private final TransactionJournal journal;
+    private final TransactionTemplate transactions;
+    private final GroupCommitCoordinator ledgerCommitter;
+    private final LedgerCompactor ledgerCompactor;
+    private final AccountNumberAllocator accountNumberAllocator;
+    private final boolean enforceAccountNumberChecksum;
+    private final OtpStore otpStore;
 
 
     public AccountManager() {
+        this(StorageEngine.getDefault());
+    }
 
-        this.accountDao = new AccountDao();
-        this.adminDao = new AdminDao();
-        this.transactionDao = new TransactionDao();
-        this.payeeDao = new PayeeDao();
-        try {
-            this.connection = DatabaseUtil.getConnection();
-        } catch (SQLException e) {
-            throw new RuntimeException("Failed to get DB connection for manager", e);
-        }
+
+    public AccountManager(StorageEngine engine) {
+
+        int accountCacheSize = DatabaseUtil.getIntProperty("ACCOUNT_CACHE_MAX_ENTRIES", 10000);
+        this.accountDao = accountCacheSize > 0
+                ? new CachedAccountDao(engine.accounts(), engine, accountCacheSize,
+                        DatabaseUtil.getIntProperty("ACCOUNT_CACHE_TTL_SECONDS", 60))
+                : engine.accounts();
+        this.adminDao = engine.admins();
+        this.journal = openJournal();
+        this.transactionDao = journal == null
+                ? engine.transactions()
+                : new JournalingTransactionDao(engine.transactions(), journal, engine);
+        this.payeeDao = engine.payees();
+        this.transactions = new TransactionTemplate(engine, MAX_TRANSFER_ATTEMPTS, UPDATE_BACKOFF_BASE_MS);
+        this.ledgerCommitter = new GroupCommitCoordinator(
+                engine,
+                transactionDao,
+                transactions,
+                DatabaseUtil.getIntProperty("LEDGER_GROUP_COMMIT_WINDOW_MS", 2),
+                DatabaseUtil.getIntProperty("LEDGER_GROUP_COMMIT_MAX_BATCH", 64)
+        );
+        this.ledgerCompactor = new LedgerCompactor(
+                engine,
+                transactionDao,
+                transactions,
+                Path.of(DatabaseUtil.getProperty("LEDGER_ARCHIVE_DIR", "archive")),
+                DatabaseUtil.getIntProperty("TX_JOURNAL_SEGMENT_RECORDS", 1 << 20),
+                DatabaseUtil.getIntProperty("LEDGER_COMPACTION_DELETE_BATCH", 5000),
+                Duration.ofSeconds(DatabaseUtil.getIntProperty("LEDGER_COMPACTION_MIN_AGE_SECONDS", 3600))
+        );
+        this.accountNumberAllocator = new AccountNumberAllocator(
+                accountDao,
+                DatabaseUtil.getIntProperty("ACCOUNT_NUMBER_BLOCK_SIZE", 100)
+        );
+        this.enforceAccountNumberChecksum =
+                Boolean.parseBoolean(DatabaseUtil.getProperty("ACCOUNT_NUMBER_CHECKSUM_ENFORCED", "false"));
+        this.otpStore = new OtpStore(
+                DatabaseUtil.getIntProperty("OTP_STORE_MAX_ENTRIES", 100000),
+                DatabaseUtil.getIntProperty("OTP_TTL_SECONDS", 300) * 1000L,
+                DatabaseUtil.getIntProperty("OTP_MAX_ATTEMPTS", 3),
+                DatabaseUtil.getIntProperty("OTP_LOCKOUT_SECONDS", 900) * 1000L
+        );
+
+        // Calibrate the BCrypt cost now rather than on the first customer's login.
+        SecurityUtil.getTargetCost();
     }
 
 
@@ -85,12 +153,10 @@ public class AccountManager {
             throw new ValidationException("Invalid IFSC code format.");
         }
 
-        String accountNumber = generateUniqueAccountNumber();
-        String passwordHash = SecurityUtil.hashPassword(password);
+        String passwordHash = hashPassword(password);
 
 
         Account newAccount = new Account();
-        newAccount.setAccountNumber(accountNumber);
         newAccount.setHolderName(holderName);
         newAccount.setPasswordHash(passwordHash);
         newAccount.setEmail(email);
@@ -102,12 +168,21 @@ public class AccountManager {
         newAccount.setAccountType(type);
         newAccount.setSecurityLevel(securityLevel);
         newAccount.setAccountStatus(AccountStatus.ACTIVE);
-        newAccount.setBalance(BigDecimal.ZERO);
+        newAccount.setBalance(Money.ZERO);
         newAccount.setCreatedAt(LocalDateTime.now());
 
-        accountDao.createAccount(newAccount);
-
-        return newAccount;
+        for (int attempt = 1; ; attempt++) {
+            newAccount.setAccountNumber(accountNumberAllocator.nextAccountNumber());
+            try {
+                accountDao.createAccount(newAccount);
+                return newAccount;
+            } catch (SQLException e) {
+                // Numbers issued before the allocator existed were random and can occupy a sequence value.
+                if (!isDuplicateAccountNumber(e) || attempt >= MAX_ACCOUNT_NUMBER_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
     }
 
 
@@ -115,6 +190,10 @@ public class AccountManager {
             throws AccountNotFoundException, ValidationException {
 
 
+        if (!isWellFormedAccountNumber(accountNumber)) {
+            throw new ValidationException("Invalid account number or password.");
+        }
+
         Account account;
         try {
             account = accountDao.findAccountByNumber(accountNumber);
@@ -127,14 +206,19 @@ public class AccountManager {
         }
 
 
+        if (!checkPassword(password, account.getPasswordHash())) {
+            throw new ValidationException("Invalid account number or password.");
+        }
+
+
+        // Only reported once the password has matched, so the status is not shown to anyone guessing.
         if (account.getAccountStatus() == AccountStatus.FROZEN ||
                 account.getAccountStatus() == AccountStatus.CLOSED) {
             throw new ValidationException("This account is " + account.getAccountStatus() + ". Please contact the bank.");
         }
 
-
-        if (!SecurityUtil.checkPassword(password, account.getPasswordHash())) {
-            throw new ValidationException("Invalid account number or password.");
+        if (SecurityUtil.needsRehash(account.getPasswordHash())) {
+            rehashPassword(account, password);
         }
 
 
@@ -170,7 +254,7 @@ public class AccountManager {
         String hashFromDB = admin.getPasswordHash();
         System.out.println("DEBUG: Hash from DB is: [" + hashFromDB + "]");
 
-        boolean passwordMatches = SecurityUtil.checkPassword(password, hashFromDB);
+        boolean passwordMatches = checkPassword(password, hashFromDB);
 
         System.out.println("DEBUG: Plain-text password is: [" + password + "]");
         System.out.println("DEBUG: Does password match hash? --> " + passwordMatches);
@@ -184,93 +268,136 @@ public class AccountManager {
     }
 
 
-    public String sendOtp(String phoneNumber) {
-        return OtpService.generateAndSendOtp(phoneNumber);
+    /**
+     * Issues a code for {@code key} (a session or phone number) and sends it to {@code phoneNumber}.
+     * The code itself stays on the server; check what the user typed with {@link #verifyOtp}.
+     */
+    public void sendOtp(String key, String phoneNumber) throws ValidationException {
+        String otp = otpStore.issue(key);
+        try {
+            OtpService.sendOtp(phoneNumber, otp);
+        } catch (ValidationException | RuntimeException e) {
+            otpStore.invalidate(key);
+            throw e;
+        }
+    }
+
+    public boolean verifyOtp(String key, String code) throws ValidationException {
+        return otpStore.verify(key, code);
     }
 
-    public BigDecimal getBalance(Account currentUser) {
+    public Money getBalance(Account currentUser) {
         return currentUser.getBalance();
     }
 
 
-    public void deposit(Account account, BigDecimal amount)
+    public void deposit(Account account, Money amount)
             throws ValidationException, SQLException {
 
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+        if (!amount.isPositive()) {
             throw new ValidationException("Deposit amount must be positive.");
         }
 
-        account.setBalance(account.getBalance().add(amount));
-        accountDao.updateAccount(account);
-        logTransaction(TxType.DEPOSIT, amount, null, account.getAccountNumber());
+        String accountNumber = account.getAccountNumber();
+        Money newBalance = ledgerCommitter.submit(ledgerEntries -> {
+            Money balance = accountDao.creditBalance(accountNumber, amount);
+            if (balance != null) {
+                ledgerEntries.add(newTransactionRecord(TxType.DEPOSIT, amount, null, accountNumber));
+            }
+            return balance;
+        });
+        if (newBalance == null) {
+            throw new ValidationException("This account no longer exists.");
+        }
+
+        account.setBalance(newBalance);
     }
 
 
-    public void withdraw(Account account, BigDecimal amount)
+    public void withdraw(Account account, Money amount)
             throws ValidationException, InsufficientFundsException, SQLException {
 
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+        if (!amount.isPositive()) {
             throw new ValidationException("Withdrawal amount must be positive.");
         }
-        if (account.getBalance().compareTo(amount) < 0) {
-            throw new InsufficientFundsException("Insufficient funds. Your balance is: " + account.getBalance());
+
+        String accountNumber = account.getAccountNumber();
+        Money newBalance = ledgerCommitter.submit(ledgerEntries -> {
+            Money balance = accountDao.debitBalance(accountNumber, amount);
+            if (balance != null) {
+                ledgerEntries.add(newTransactionRecord(TxType.WITHDRAW, amount, accountNumber, null));
+            }
+            return balance;
+        });
+        if (newBalance == null) {
+            Money currentBalance = accountDao.findBalance(accountNumber);
+            account.setBalance(currentBalance);
+            throw new InsufficientFundsException("Insufficient funds. Your balance is: " + currentBalance);
         }
 
-        account.setBalance(account.getBalance().subtract(amount));
-        accountDao.updateAccount(account);
-        logTransaction(TxType.WITHDRAW, amount, account.getAccountNumber(), null);
+        account.setBalance(newBalance);
     }
 
-    public void transfer(Account fromAccount, String toAccountNumber, BigDecimal amount)
+    public void transfer(Account fromAccount, String toAccountNumber, Money amount)
             throws ValidationException, InsufficientFundsException, AccountNotFoundException {
 
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+        if (!amount.isPositive()) {
             throw new ValidationException("Transfer amount must be positive.");
         }
-        if (fromAccount.getBalance().compareTo(amount) < 0) {
-            throw new InsufficientFundsException("Insufficient funds. Your balance is: " + fromAccount.getBalance());
-        }
         if (fromAccount.getAccountNumber().equals(toAccountNumber)) {
             throw new ValidationException("Cannot transfer money to yourself.");
         }
+        if (!isWellFormedAccountNumber(toAccountNumber)) {
+            throw new ValidationException("The recipient account number is not valid. Please check it for typos.");
+        }
 
-        try {
-            Account toAccount = accountDao.findAccountByNumber(toAccountNumber);
-            if (toAccount == null) {
-                throw new AccountNotFoundException("The recipient account number does not exist.");
-            }
-            if (toAccount.getAccountStatus() != AccountStatus.ACTIVE) {
-                throw new ValidationException("The recipient account is not active.");
-            }
-
-            connection.setAutoCommit(false);
-
-
-            fromAccount.setBalance(fromAccount.getBalance().subtract(amount));
-            accountDao.updateAccount(fromAccount);
-
-
-            toAccount.setBalance(toAccount.getBalance().add(amount));
-            accountDao.updateAccount(toAccount);
-
-
-            logTransaction(TxType.TRANSFER, amount, fromAccount.getAccountNumber(), toAccountNumber);
+        String fromAccountNumber = fromAccount.getAccountNumber();
 
-            connection.commit();
+        // The rows are locked explicitly, so READ COMMITTED is enough and avoids InnoDB gap locks.
+        try {
+            Money newBalance = transactions.inTransaction("transfer", TransactionTemplate.Isolation.READ_COMMITTED, () -> {
+                // Lock both rows in account-number order so reciprocal transfers queue instead of deadlocking.
+                boolean fromFirst = fromAccountNumber.compareTo(toAccountNumber) < 0;
+                AccountSummary firstLocked = accountDao.findAccountSummaryForUpdate(fromFirst ? fromAccountNumber : toAccountNumber);
+                AccountSummary secondLocked = accountDao.findAccountSummaryForUpdate(fromFirst ? toAccountNumber : fromAccountNumber);
+                AccountSummary source = fromFirst ? firstLocked : secondLocked;
+                AccountSummary target = fromFirst ? secondLocked : firstLocked;
+
+                if (source == null) {
+                    throw new AccountNotFoundException("Your account no longer exists.");
+                }
+                if (target == null) {
+                    throw new AccountNotFoundException("The recipient account number does not exist.");
+                }
+                if (source.getAccountStatus() != AccountStatus.ACTIVE) {
+                    throw new ValidationException("This account is " + source.getAccountStatus() + ". Please contact the bank.");
+                }
+                if (target.getAccountStatus() != AccountStatus.ACTIVE) {
+                    throw new ValidationException("The recipient account is not active.");
+                }
+                if (source.getBalance().isLessThan(amount)) {
+                    fromAccount.setBalance(source.getBalance());
+                    throw new InsufficientFundsException("Insufficient funds. Your balance is: " + source.getBalance());
+                }
+
+
+                Money balance = accountDao.debitBalance(fromAccountNumber, amount);
+                accountDao.creditBalance(toAccountNumber, amount);
+
+
+                logTransaction(TxType.TRANSFER, amount, fromAccountNumber, toAccountNumber);
+                return balance;
+            });
+            fromAccount.setBalance(newBalance);
 
         } catch (SQLException e) {
-            try {
-                connection.rollback();
-            } catch (SQLException rollbackEx) {
-                rollbackEx.printStackTrace();
-            }
+            Metrics.increment("transfer.failures");
             throw new RuntimeException("Transfer failed due to a database error. Transaction was rolled back.", e);
-        } finally {
-            try {
-                connection.setAutoCommit(true);
-            } catch (SQLException e) {
-                e.printStackTrace();
-            }
+        } catch (ValidationException | InsufficientFundsException | AccountNotFoundException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            // The work throws nothing else; the template just sees the three domain exceptions as Exception.
+            throw new IllegalStateException(e);
         }
     }
 
@@ -286,16 +413,25 @@ public class AccountManager {
     }
 
 
-    public List<TransactionRecord> getFullTransactionHistory(String accountNumber) {
+    public List<TransactionRecord> getTransactionHistoryPage(String accountNumber, TransactionCursor after, int pageSize) {
         try {
-            return transactionDao.findTransactionsForAccount(accountNumber);
+            return transactionDao.findTransactionsForAccount(accountNumber, after, pageSize);
         } catch (SQLException e) {
-            System.err.println("Database error retrieving full transaction history: " + e.getMessage());
+            System.err.println("Database error retrieving transaction history: " + e.getMessage());
             return new ArrayList<>();
         }
     }
 
 
+    public void streamFullTransactionHistory(String accountNumber, Consumer<TransactionRecord> handler) {
+        try {
+            transactionDao.streamTransactionsForAccount(accountNumber, handler);
+        } catch (SQLException e) {
+            System.err.println("Database error retrieving full transaction history: " + e.getMessage());
+        }
+    }
+
+
     public Account getAccountDetails(Account currentUser) {
         return currentUser;
     }
@@ -322,35 +458,41 @@ public class AccountManager {
         }
 
 
-        currentUser.setEmail(newEmail);
-        currentUser.setPhoneNumber(newPhone);
-        currentUser.setFullAddress(newAddress);
-        currentUser.setSecurityLevel(newSecurityLevel);
-
-
-        accountDao.updateAccount(currentUser);
+        final String email = newEmail;
+        final String phone = newPhone;
+        updateWithRetry(currentUser, account -> {
+            account.setEmail(email);
+            account.setPhoneNumber(phone);
+            account.setFullAddress(newAddress);
+            account.setSecurityLevel(newSecurityLevel);
+        });
     }
 
     public void changePassword(Account currentUser, String oldPassword, String newPassword)
             throws ValidationException, SQLException {
 
-        if (!SecurityUtil.checkPassword(oldPassword, currentUser.getPasswordHash())) {
+        if (!checkPassword(oldPassword, currentUser.getPasswordHash())) {
             throw new ValidationException("Incorrect old password.");
         }
         if (!ValidationUtil.isValidPassword(newPassword)) {
             throw new ValidationException("New password is too weak. Must be 8+ chars, 1 number, 1 special char.");
         }
 
-        String newPasswordHash = SecurityUtil.hashPassword(newPassword);
-        currentUser.setPasswordHash(newPasswordHash);
+        String oldPasswordHash = currentUser.getPasswordHash();
+        String newPasswordHash = hashPassword(newPassword);
 
-        accountDao.updateAccount(currentUser);
+        updateWithRetry(currentUser, account -> {
+            if (!account.getPasswordHash().equals(oldPasswordHash)) {
+                throw new ValidationException("Your password was changed in another session.");
+            }
+            account.setPasswordHash(newPasswordHash);
+        });
     }
 
 
-    public List<Account> listAllCustomerAccounts() {
+    public List<AccountSummary> listAllCustomerAccounts() {
         try {
-            return accountDao.listAllAccounts();
+            return accountDao.listAccountSummaries();
         } catch (SQLException e) {
             System.err.println("Database error listing all accounts: " + e.getMessage());
             return new ArrayList<>();
@@ -360,6 +502,9 @@ public class AccountManager {
 
     public Account searchAccountByNumber(String accountNumber)
             throws AccountNotFoundException {
+        if (!isWellFormedAccountNumber(accountNumber)) {
+            throw new AccountNotFoundException(accountNumber + " is not a valid account number.");
+        }
         try {
             Account account = accountDao.findAccountByNumber(accountNumber);
             if (account == null) {
@@ -373,29 +518,108 @@ public class AccountManager {
     }
 
     public void freezeAccount(Account accountToFreeze) throws ValidationException, SQLException {
-        if (accountToFreeze.getAccountStatus() == AccountStatus.FROZEN) {
-            throw new ValidationException("This account is already frozen.");
-        }
-        accountToFreeze.setAccountStatus(AccountStatus.FROZEN);
-        accountDao.updateAccount(accountToFreeze);
+        updateWithRetry(accountToFreeze, account -> {
+            if (account.getAccountStatus() == AccountStatus.FROZEN) {
+                throw new ValidationException("This account is already frozen.");
+            }
+            account.setAccountStatus(AccountStatus.FROZEN);
+        });
     }
 
 
     public void unfreezeAccount(Account accountToUnfreeze) throws ValidationException, SQLException {
-        if (accountToUnfreeze.getAccountStatus() != AccountStatus.FROZEN) {
-            throw new ValidationException("This account is not frozen.");
-        }
-        accountToUnfreeze.setAccountStatus(AccountStatus.ACTIVE);
-        accountDao.updateAccount(accountToUnfreeze);
+        updateWithRetry(accountToUnfreeze, account -> {
+            if (account.getAccountStatus() != AccountStatus.FROZEN) {
+                throw new ValidationException("This account is not frozen.");
+            }
+            account.setAccountStatus(AccountStatus.ACTIVE);
+        });
     }
 
 
-    public List<TransactionRecord> getAllTransactions() {
+    public void streamAllTransactions(Consumer<TransactionRecord> handler) {
         try {
-            return transactionDao.findAllTransactions();
+            transactionDao.streamAllTransactions(handler);
         } catch (SQLException e) {
             System.err.println("Database error listing all transactions: " + e.getMessage());
-            return new ArrayList<>();
+        }
+    }
+
+
+    /**
+     * Snapshots every balance as of {@code cutoff}, archives the ledger entries before it and deletes them
+     * from the ledger. Nothing is changed if any balance fails to reconcile; the result lists those accounts.
+     */
+    public CompactionResult compactLedger(LocalDateTime cutoff) throws ValidationException, SQLException, IOException {
+        try {
+            return ledgerCompactor.compact(cutoff);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException(e.getMessage());
+        }
+    }
+
+
+    public BalanceCheck verifyAccountBalance(String accountNumber) throws SQLException {
+        return ledgerCompactor.verify(accountNumber);
+    }
+
+
+    public boolean isJournalEnabled() {
+        return journal != null;
+    }
+
+
+    /**
+     * Totals every entry in the transaction journal, reading the records in place rather than
+     * materialising one object per entry. Returns null when the journal is not enabled.
+     */
+    public LedgerTotals auditJournal() {
+        if (journal == null) {
+            return null;
+        }
+
+        long entries = 0;
+        long[] counts = new long[TxType.values().length];
+        long[] totals = new long[TxType.values().length];
+        long first = Long.MAX_VALUE;
+        long last = Long.MIN_VALUE;
+
+        JournalCursor cursor = journal.cursor();
+        while (cursor.next()) {
+            int type = cursor.type().ordinal();
+            counts[type]++;
+            totals[type] = Math.addExact(totals[type], cursor.amountMinorUnits());
+            long createdAt = cursor.createdAtEpochMicros();
+            first = Math.min(first, createdAt);
+            last = Math.max(last, createdAt);
+            entries++;
+        }
+
+        return new LedgerTotals(
+                entries,
+                counts[TxType.DEPOSIT.ordinal()], JournalCursor.toAmount(totals[TxType.DEPOSIT.ordinal()]),
+                counts[TxType.WITHDRAW.ordinal()], JournalCursor.toAmount(totals[TxType.WITHDRAW.ordinal()]),
+                counts[TxType.TRANSFER.ordinal()], JournalCursor.toAmount(totals[TxType.TRANSFER.ordinal()]),
+                entries == 0 ? null : JournalCursor.toDateTime(first),
+                entries == 0 ? null : JournalCursor.toDateTime(last)
+        );
+    }
+
+
+    /**
+     * Streams one account's journaled entries, oldest first. Only matching records are turned into objects;
+     * the rest are skipped by comparing packed account numbers in place.
+     */
+    public void streamJournalStatement(String accountNumber, Consumer<TransactionRecord> handler) {
+        if (journal == null) {
+            return;
+        }
+        long packed = JournalCursor.packAccount(accountNumber);
+        JournalCursor cursor = journal.cursor();
+        while (cursor.next()) {
+            if (cursor.matchesPackedAccount(packed)) {
+                handler.accept(cursor.toRecord());
+            }
         }
     }
 
@@ -428,7 +652,7 @@ public class AccountManager {
 
 
         String adminId = "admin_" + username.toLowerCase();
-        String passwordHash = SecurityUtil.hashPassword(password);
+        String passwordHash = hashPassword(password);
         String bankName = DatabaseUtil.getProperty("BANK_NAME", "Global Bank Inc.");
 
 
@@ -451,24 +675,152 @@ public class AccountManager {
 
 
 
-    private String generateUniqueAccountNumber() {
-        long first11 = ThreadLocalRandom.current().nextLong(100_000_000_00L, 999_999_999_99L);
-        int lastDigit = ThreadLocalRandom.current().nextInt(10);
-        return "" + first11 + lastDigit;
+    /**
+     * Applies {@code change} to a copy of {@code account} and saves it with a version check. On a conflict the
+     * row is reloaded into the copy, the change is re-applied and the save retried with backoff. {@code account}
+     * only takes the new state once a save has succeeded, so a failed update leaves it as it was.
+     */
+    private void updateWithRetry(Account account, AccountChange change)
+            throws ValidationException, SQLException {
+
+        Account working = new Account();
+        working.setAccountNumber(account.getAccountNumber());
+        copyState(account, working);
+
+        for (int attempt = 1; ; attempt++) {
+            Metrics.increment("account.update.attempts");
+            change.apply(working);
+            try {
+                accountDao.updateAccount(working);
+                copyState(working, account);
+                return;
+            } catch (OptimisticLockException e) {
+                Metrics.increment("account.update.conflicts");
+                if (attempt >= MAX_UPDATE_ATTEMPTS) {
+                    Metrics.increment("account.update.exhausted");
+                    throw new ValidationException("This account is being updated elsewhere. Please try again.");
+                }
+            }
+
+            backOff(attempt);
+
+            Account latest = accountDao.findAccountByNumber(account.getAccountNumber());
+            if (latest == null) {
+                throw new ValidationException("This account no longer exists.");
+            }
+            copyState(latest, working);
+            Metrics.increment("account.update.retries");
+        }
+    }
+
+
+    private static void backOff(int attempt) {
+        long ceiling = UPDATE_BACKOFF_BASE_MS << Math.min(attempt - 1, 6);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 
-     void logTransaction(TxType type, BigDecimal amount, String fromAcct, String toAcct)
+
+    private static void copyState(Account from, Account to) {
+        to.setHolderName(from.getHolderName());
+        to.setPasswordHash(from.getPasswordHash());
+        to.setEmail(from.getEmail());
+        to.setPhoneNumber(from.getPhoneNumber());
+        to.setFullAddress(from.getFullAddress());
+        to.setPanCardNumber(from.getPanCardNumber());
+        to.setAadharCardNumber(from.getAadharCardNumber());
+        to.setIfscCode(from.getIfscCode());
+        to.setAccountType(from.getAccountType());
+        to.setSecurityLevel(from.getSecurityLevel());
+        to.setAccountStatus(from.getAccountStatus());
+        to.setBalance(from.getBalance());
+        to.setCreatedAt(from.getCreatedAt());
+        to.setVersion(from.getVersion());
+    }
+
+
+    private interface AccountChange {
+        void apply(Account account) throws ValidationException;
+    }
+
+
+    // Only possible while the plain-text password is at hand, so a failure here must not fail the login;
+    // the next login simply tries again.
+    private void rehashPassword(Account account, String password) {
+        try {
+            accountDao.updatePasswordHash(account, hashPassword(password));
+            Metrics.increment("password.rehashed");
+        } catch (ValidationException | OptimisticLockException | SQLException e) {
+            System.err.println("Could not upgrade password hash for account " + account.getAccountNumber() +
+                    ": " + e.getMessage());
+        }
+    }
+
+
+    // BCrypt runs on the bounded PasswordHasher pool; a full queue is reported as a retryable "busy".
+    private static String hashPassword(String password) throws ValidationException {
+        try {
+            return PasswordHasher.hash(password);
+        } catch (RejectedExecutionException e) {
+            throw new ValidationException("The system is busy right now. Please try again in a moment.");
+        }
+    }
+
+    private static boolean checkPassword(String password, String passwordHash) throws ValidationException {
+        try {
+            return PasswordHasher.check(password, passwordHash);
+        } catch (RejectedExecutionException e) {
+            throw new ValidationException("The system is busy right now. Please try again in a moment.");
+        }
+    }
+
+
+    // Only a clash on the primary key (the account number) is worth retrying with the next number.
+    private static boolean isDuplicateAccountNumber(SQLException e) {
+        return e.getErrorCode() == 1062 && e.getMessage() != null && e.getMessage().contains("PRIMARY");
+    }
+
+
+    private boolean isWellFormedAccountNumber(String accountNumber) {
+        if (!enforceAccountNumberChecksum) {
+            return accountNumber != null && !accountNumber.trim().isEmpty();
+        }
+        return ValidationUtil.isValidAccountNumber(accountNumber);
+    }
+
+     void logTransaction(TxType type, Money amount, String fromAcct, String toAcct)
             throws SQLException {
 
-        TransactionRecord tx = new TransactionRecord(
-                UUID.randomUUID().toString(),
+        transactionDao.createTransaction(newTransactionRecord(type, amount, fromAcct, toAcct));
+    }
+
+    // The journal is opt-in; it only covers entries written while it is enabled.
+    private static TransactionJournal openJournal() {
+        String directory = DatabaseUtil.getProperty("TX_JOURNAL_DIR");
+        if (directory == null || directory.isBlank()) {
+            return null;
+        }
+        try {
+            return new TransactionJournal(Path.of(directory),
+                    DatabaseUtil.getIntProperty("TX_JOURNAL_SEGMENT_RECORDS", 1 << 20));
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not open the transaction journal in " + directory + ": " + e.getMessage(), e);
+        }
+    }
+
+
+    private TransactionRecord newTransactionRecord(TxType type, Money amount, String fromAcct, String toAcct) {
+        return new TransactionRecord(
+                TransactionIdGenerator.next(),
                 type,
                 amount,
                 fromAcct,
                 toAcct,
                 LocalDateTime.now()
         );
-        transactionDao.createTransaction(tx);
     }
 
     public List<Payee> getPayeesForAccount(Account currentUser) {
@@ -494,9 +846,11 @@ public class AccountManager {
         if (payeeName == null || payeeName.trim().isEmpty()) {
             throw new ValidationException("Payee name cannot be empty.");
         }
+        if (!isWellFormedAccountNumber(payeeAccNum)) {
+            throw new ValidationException("The payee account number " + payeeAccNum + " is not valid. Please check it for typos.");
+        }
 
-        Account payeeAccount = accountDao.findAccountByNumber(payeeAccNum);
-        if (payeeAccount == null) {
+        if (accountDao.findAccountStatus(payeeAccNum) == null) {
             throw new ValidationException("The payee account number " + payeeAccNum + " does not exist.");
         }
 
@@ -0,0 +1,71 @@
+package com.yourbank.service;
+
+import com.yourbank.dao.AccountDao;
+import com.yourbank.util.ValidationUtil;
+
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+
+/**
+ * Hands out new 12-digit account numbers: an 11-digit sequence value plus a Luhn check digit.
+ * Sequence values are reserved from the database in blocks (hi/lo) and then issued from memory without
+ * locking, so only one caller per block ever touches the database.
+ */
+public class AccountNumberAllocator {
+
+    private static final long MAX_BASE = 99_999_999_999L;
+
+    private final AccountDao accountDao;
+    private final int blockSize;
+    private final AtomicReference<Block> current = new AtomicReference<>(new Block(0, 0));
+
+
+    public AccountNumberAllocator(AccountDao accountDao, int blockSize) {
+        this.accountDao = accountDao;
+        this.blockSize = Math.max(1, blockSize);
+    }
+
+
+    public String nextAccountNumber() throws SQLException {
+        while (true) {
+            Block block = current.get();
+            long value = block.next.getAndIncrement();
+            if (value < block.end) {
+                return format(value);
+            }
+            refill(block);
+        }
+    }
+
+
+    private synchronized void refill(Block exhausted) throws SQLException {
+        if (current.get() != exhausted) {
+            return;
+        }
+        long start = accountDao.reserveAccountNumbers(blockSize);
+        if (start + blockSize - 1 > MAX_BASE) {
+            throw new SQLException("Account number sequence is exhausted.");
+        }
+        current.set(new Block(start, start + blockSize));
+    }
+
+
+    private static String format(long base) {
+        String digits = String.format("%011d", base);
+        return digits + ValidationUtil.luhnCheckDigit(digits);
+    }
+
+
+    private static class Block {
+
+        private final AtomicLong next;
+        private final long end;
+
+        private Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
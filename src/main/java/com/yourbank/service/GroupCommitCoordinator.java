@@ -0,0 +1,225 @@
+package com.yourbank.service;
+
+import com.yourbank.dao.StorageEngine;
+import com.yourbank.dao.TransactionDao;
+import com.yourbank.model.TransactionRecord;
+import com.yourbank.util.DatabaseUtil;
+import com.yourbank.util.Metrics;
+
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Collects money movements submitted by concurrent callers and commits them together, so that a burst of
+ * deposits and withdrawals costs one database commit (and one log flush) instead of one each.
+ *
+ * <p>Each movement runs inside its own savepoint, so a movement that fails, with an {@code SQLException} or
+ * any {@code RuntimeException}, is undone without affecting the rest of its group. The ledger rows of all successful movements are written with a single batch insert
+ * just before the commit.
+ */
+public class GroupCommitCoordinator implements AutoCloseable {
+
+    private final StorageEngine engine;
+    private final TransactionDao transactionDao;
+    private final TransactionTemplate transactions;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final BlockingQueue<Pending<?>> queue = new LinkedBlockingQueue<>();
+    private final Thread committer;
+    private volatile boolean running = true;
+
+
+    /**
+     * A unit of balance changes. It adds the ledger rows it wants written to {@code ledgerEntries}
+     * and must not touch anything outside the database, since it may be re-run if its group is retried.
+     */
+    public interface Movement<T> {
+        T apply(List<TransactionRecord> ledgerEntries) throws SQLException;
+    }
+
+
+    public GroupCommitCoordinator(StorageEngine engine, TransactionDao transactionDao, TransactionTemplate transactions,
+                                  long windowMillis, int maxBatchSize) {
+        this.engine = engine;
+        this.transactionDao = transactionDao;
+        this.transactions = transactions;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+
+        if (windowNanos > 0) {
+            this.committer = new Thread(this::commitLoop, "ledger-group-commit");
+            this.committer.setDaemon(true);
+            this.committer.start();
+        } else {
+            this.committer = null;
+        }
+    }
+
+
+    public <T> T submit(Movement<T> movement) throws SQLException {
+        if (committer == null) {
+            return applyDirectly(movement);
+        }
+        if (!running) {
+            throw new SQLException("Group commit coordinator has been shut down.");
+        }
+
+        Pending<T> pending = new Pending<>(movement);
+        queue.add(pending);
+
+        try {
+            return pending.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for group commit.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new SQLException("Group commit failed.", cause);
+        }
+    }
+
+
+    @Override
+    public void close() {
+        running = false;
+        if (committer != null) {
+            committer.interrupt();
+        }
+    }
+
+
+    private <T> T applyDirectly(Movement<T> movement) throws SQLException {
+        return transactions.inTransaction("ledger", () -> {
+            List<TransactionRecord> ledgerEntries = new ArrayList<>();
+            T result = movement.apply(ledgerEntries);
+            transactionDao.createTransactions(ledgerEntries);
+            return result;
+        });
+    }
+
+
+    private void commitLoop() {
+        List<Pending<?>> batch = new ArrayList<>();
+
+        while (running) {
+            try {
+                batch.add(queue.take());
+
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    Pending<?> next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                commitBatch(batch);
+            } catch (InterruptedException e) {
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+
+        SQLException shutdown = new SQLException("Group commit coordinator has been shut down.");
+        Pending<?> leftover;
+        while ((leftover = queue.poll()) != null) {
+            leftover.result.completeExceptionally(shutdown);
+        }
+    }
+
+
+    private void commitBatch(List<Pending<?>> batch) {
+        Metrics.increment("groupcommit.batches");
+        Metrics.add("groupcommit.movements", batch.size());
+
+        try {
+            transactions.inTransaction("groupcommit", () -> {
+                runBatch(batch);
+                return null;
+            });
+            batch.forEach(Pending::complete);
+        } catch (SQLException | RuntimeException e) {
+            for (Pending<?> pending : batch) {
+                pending.result.completeExceptionally(e);
+            }
+        }
+    }
+
+
+    // Runs inside the group's transaction; a retry of the group calls this again from the start.
+    private void runBatch(List<Pending<?>> batch) throws SQLException {
+        List<TransactionRecord> ledgerEntries = new ArrayList<>();
+
+        for (Pending<?> pending : batch) {
+            pending.reset();
+            List<TransactionRecord> entries = new ArrayList<>();
+            Savepoint savepoint = engine.setSavepoint();
+            try {
+                pending.run(entries);
+                ledgerEntries.addAll(entries);
+            } catch (SQLException e) {
+                // A deadlock has already rolled back the whole transaction; the group must start over.
+                if (DatabaseUtil.isRetryableLockFailure(e)) {
+                    throw e;
+                }
+                engine.rollbackToSavepoint(savepoint);
+                pending.failure = e;
+            } catch (RuntimeException e) {
+                engine.rollbackToSavepoint(savepoint);
+                pending.failure = e;
+            }
+        }
+
+        transactionDao.createTransactions(ledgerEntries);
+    }
+
+
+    private static class Pending<T> {
+
+        private final Movement<T> movement;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private T value;
+        private Exception failure;
+
+        private Pending(Movement<T> movement) {
+            this.movement = movement;
+        }
+
+        private void reset() {
+            value = null;
+            failure = null;
+        }
+
+        private void run(List<TransactionRecord> entries) throws SQLException {
+            value = movement.apply(entries);
+        }
+
+        private void complete() {
+            if (failure != null) {
+                result.completeExceptionally(failure);
+            } else {
+                result.complete(value);
+            }
+        }
+    }
+}
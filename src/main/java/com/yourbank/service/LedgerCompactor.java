@@ -0,0 +1,281 @@
+package com.yourbank.service;
+
+import com.yourbank.dao.AccountDao;
+import com.yourbank.dao.SnapshotDao;
+import com.yourbank.dao.StorageEngine;
+import com.yourbank.dao.TransactionDao;
+import com.yourbank.dao.journal.JournalCursor;
+import com.yourbank.dao.journal.TransactionJournal;
+import com.yourbank.model.AccountSummary;
+import com.yourbank.model.BalanceCheck;
+import com.yourbank.model.BalanceSnapshot;
+import com.yourbank.model.CompactionResult;
+import com.yourbank.model.Money;
+import com.yourbank.model.TransactionRecord;
+import com.yourbank.model.TransactionRecord.TxType;
+import com.yourbank.util.Metrics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * Moves old ledger entries out of the database while keeping every balance verifiable.
+ *
+ * <p>A compaction to {@code cutoff} archives the entries created since the previous cutoff into a
+ * {@link TransactionJournal} under the archive directory, computes each account's opening balance at the cutoff
+ * (previous snapshot plus those entries), and checks it against the stored balance minus everything since.
+ * Only if every account checks out are the snapshots saved and the archived entries deleted, in small
+ * batches so no single statement locks much of the table. A failed or interrupted run changes nothing that a
+ * re-run cannot redo.
+ *
+ * <p>An entry is dated when it is built, a moment before it commits, so the cutoff must be at least
+ * {@code minimumAge} old: otherwise an entry dated just before it could commit after the archive was written
+ * and be deleted unarchived. The deletes are bounded to the archived range and must remove exactly as many
+ * entries as were archived.
+ */
+public class LedgerCompactor {
+
+    private static final DateTimeFormatter ARCHIVE_NAME = DateTimeFormatter.ofPattern("'until-'yyyyMMdd'T'HHmmss.SSSSSS");
+
+    private final TransactionDao transactionDao;
+    private final AccountDao accountDao;
+    private final SnapshotDao snapshotDao;
+    private final TransactionTemplate transactions;
+    private final Path archiveRoot;
+    private final int archiveSegmentRecords;
+    private final int deleteBatchSize;
+    private final Duration minimumAge;
+
+
+    public LedgerCompactor(StorageEngine engine, TransactionDao transactionDao, TransactionTemplate transactions,
+                           Path archiveRoot, int archiveSegmentRecords, int deleteBatchSize, Duration minimumAge) {
+        this.transactionDao = transactionDao;
+        this.accountDao = engine.accounts();
+        this.snapshotDao = engine.snapshots();
+        this.transactions = transactions;
+        this.archiveRoot = archiveRoot;
+        this.archiveSegmentRecords = archiveSegmentRecords;
+        this.deleteBatchSize = Math.max(1, deleteBatchSize);
+        this.minimumAge = minimumAge;
+    }
+
+
+    public synchronized CompactionResult compact(LocalDateTime requestedCutoff) throws SQLException, IOException {
+        // created_at and cutoff_at are stored to the microsecond.
+        LocalDateTime cutoff = requestedCutoff.truncatedTo(ChronoUnit.MICROS);
+        if (!cutoff.isBefore(LocalDateTime.now().minus(minimumAge))) {
+            throw new IllegalArgumentException("The compaction cutoff must be at least " + minimumAge.toSeconds() +
+                    " second(s) in the past.");
+        }
+        LocalDateTime previousCutoff = snapshotDao.findLatestCutoff();
+        if (previousCutoff != null && !cutoff.isAfter(previousCutoff)) {
+            throw new IllegalArgumentException("The ledger is already compacted up to " + previousCutoff + ".");
+        }
+        long start = System.nanoTime();
+
+        Map<String, Money> opening = new HashMap<>();
+        if (previousCutoff != null) {
+            for (BalanceSnapshot snapshot : snapshotDao.findSnapshotsAt(previousCutoff)) {
+                opening.put(snapshot.getAccountNumber(), snapshot.getBalance());
+            }
+        }
+
+        Path archiveDirectory = archiveRoot.resolve(cutoff.format(ARCHIVE_NAME));
+        long archived = archive(previousCutoff, cutoff, archiveDirectory, opening);
+
+        List<BalanceCheck> mismatches = transactions.inTransaction("compaction.verify",
+                TransactionTemplate.Isolation.REPEATABLE_READ, () -> {
+                    long live = countBetween(previousCutoff, cutoff);
+                    if (live != archived) {
+                        Metrics.increment("compaction.aborted");
+                        throw new IllegalStateException("The ledger holds " + live + " entries before the cutoff but " +
+                                archived + " were archived; an entry arrived late. Nothing was deleted.");
+                    }
+                    return verifyAll(cutoff, opening);
+                });
+        if (!mismatches.isEmpty()) {
+            Metrics.increment("compaction.aborted");
+            return new CompactionResult(cutoff, archiveDirectory, archived, 0, 0, mismatches);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<BalanceSnapshot> snapshots = new ArrayList<>(opening.size());
+        for (Map.Entry<String, Money> entry : opening.entrySet()) {
+            snapshots.add(new BalanceSnapshot(entry.getKey(), cutoff, entry.getValue(), now));
+        }
+        transactions.inTransaction("compaction.snapshot", () -> {
+            snapshotDao.createSnapshots(snapshots);
+            return null;
+        });
+
+        // Never delete more than was archived, even if something unexpected shows up in the range.
+        long deleted = 0;
+        int batch;
+        do {
+            int limit = (int) Math.min(deleteBatchSize, archived - deleted);
+            batch = limit == 0 ? 0 : transactionDao.deleteTransactionsBetween(previousCutoff, cutoff, limit);
+            deleted += batch;
+        } while (batch > 0);
+        long remaining = countBetween(previousCutoff, cutoff);
+        if (deleted != archived || remaining != 0) {
+            Metrics.increment("compaction.aborted");
+            throw new IllegalStateException("Deleted " + deleted + " of " + archived + " archived entries before " +
+                    cutoff + " and " + remaining + " remain; compare the ledger with " + archiveDirectory + ".");
+        }
+
+        Metrics.add("compaction.archived", archived);
+        Metrics.add("compaction.deleted", deleted);
+        Metrics.add("compaction.nanos", System.nanoTime() - start);
+        return new CompactionResult(cutoff, archiveDirectory, archived, snapshots.size(), deleted, List.of());
+    }
+
+
+    /**
+     * Recomputes one account's balance as its latest snapshot plus the entries since, inside one
+     * consistent read, and compares it with the stored balance.
+     */
+    public BalanceCheck verify(String accountNumber) throws SQLException {
+        return transactions.inTransaction("compaction.verify", TransactionTemplate.Isolation.REPEATABLE_READ, () -> {
+            BalanceSnapshot snapshot = snapshotDao.findLatestSnapshot(accountNumber);
+            Money openingBalance = snapshot == null ? Money.ZERO : snapshot.getBalance();
+            LocalDateTime since = snapshot == null ? null : snapshot.getCutoffAt();
+
+            Map<String, Money> balance = new HashMap<>();
+            balance.put(accountNumber, openingBalance);
+            long[] replayed = {0};
+            transactionDao.streamTransactionsForAccountSince(accountNumber, since, tx -> {
+                applyEntry(balance, tx);
+                replayed[0]++;
+            });
+
+            return new BalanceCheck(accountNumber, since, openingBalance, replayed[0],
+                    balance.get(accountNumber), accountDao.findBalance(accountNumber));
+        });
+    }
+
+
+    // Writes [from, to) to a fresh archive while folding each entry into the opening balances.
+    private long archive(LocalDateTime from, LocalDateTime to, Path directory, Map<String, Money> opening)
+            throws SQLException, IOException {
+        deleteSegments(directory);
+
+        long streamedMinorUnits;
+        long streamed;
+        try (TransactionJournal archive = new TransactionJournal(directory, archiveSegmentRecords)) {
+            long[] totals = {0, 0};
+            try {
+                transactionDao.streamTransactionsBetween(from, to, tx -> {
+                    try {
+                        archive.append(tx);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    applyEntry(opening, tx);
+                    totals[0]++;
+                    totals[1] = Math.addExact(totals[1], tx.getAmount().getMinorUnits());
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            streamed = totals[0];
+            streamedMinorUnits = totals[1];
+        }
+
+        // Read the archive back before anything is deleted on the strength of it.
+        JournalCursor cursor = TransactionJournal.read(directory);
+        long count = 0;
+        long minorUnits = 0;
+        while (cursor.next()) {
+            count++;
+            minorUnits += cursor.amountMinorUnits();
+        }
+        if (count != streamed || minorUnits != streamedMinorUnits) {
+            throw new IOException("Archive " + directory + " holds " + count + " entries totalling " + minorUnits +
+                    " minor units, expected " + streamed + " totalling " + streamedMinorUnits + ".");
+        }
+        return streamed;
+    }
+
+
+    private long countBetween(LocalDateTime from, LocalDateTime to) throws SQLException {
+        long[] count = {0};
+        transactionDao.streamTransactionsBetween(from, to, tx -> count[0]++);
+        return count[0];
+    }
+
+
+    private List<BalanceCheck> verifyAll(LocalDateTime cutoff, Map<String, Money> opening) throws SQLException {
+        Map<String, Money> expected = new HashMap<>(opening);
+        Map<String, long[]> replayed = new HashMap<>();
+        transactionDao.streamTransactionsBetween(cutoff, null, tx -> {
+            applyEntry(expected, tx);
+            countEntry(replayed, tx.getFromAccountNumber());
+            countEntry(replayed, tx.getToAccountNumber());
+        });
+
+        List<BalanceCheck> mismatches = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (AccountSummary account : accountDao.listAccountSummaries()) {
+            String accountNumber = account.getAccountNumber();
+            seen.add(accountNumber);
+            Money expectedBalance = expected.getOrDefault(accountNumber, Money.ZERO);
+            if (!expectedBalance.equals(account.getBalance())) {
+                mismatches.add(new BalanceCheck(accountNumber, cutoff, opening.getOrDefault(accountNumber, Money.ZERO),
+                        replayed.getOrDefault(accountNumber, new long[1])[0], expectedBalance, account.getBalance()));
+            }
+        }
+        // Ledger entries for accounts that no longer exist cannot be reconciled either.
+        for (String accountNumber : expected.keySet()) {
+            if (!seen.contains(accountNumber)) {
+                mismatches.add(new BalanceCheck(accountNumber, cutoff, opening.getOrDefault(accountNumber, Money.ZERO),
+                        replayed.getOrDefault(accountNumber, new long[1])[0], expected.get(accountNumber), null));
+            }
+        }
+        return mismatches;
+    }
+
+
+    private static void applyEntry(Map<String, Money> balances, TransactionRecord tx) {
+        if (tx.getTxType() != TxType.DEPOSIT && tx.getFromAccountNumber() != null) {
+            balances.merge(tx.getFromAccountNumber(), tx.getAmount().negate(), Money::plus);
+        }
+        if (tx.getTxType() != TxType.WITHDRAW && tx.getToAccountNumber() != null) {
+            balances.merge(tx.getToAccountNumber(), tx.getAmount(), Money::plus);
+        }
+    }
+
+
+    private static void countEntry(Map<String, long[]> counts, String accountNumber) {
+        if (accountNumber != null) {
+            counts.computeIfAbsent(accountNumber, k -> new long[1])[0]++;
+        }
+    }
+
+
+    // Leftovers of an interrupted run for the same cutoff; a completed run's cutoff is never reused.
+    private static void deleteSegments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.txj")) {
+            for (Path file : stream) {
+                Files.delete(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.yourbank.service;
+
+import com.yourbank.dao.StorageEngine;
+import com.yourbank.util.DatabaseUtil;
+import com.yourbank.util.Metrics;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+
+
+/**
+ * Runs a piece of work as one {@link StorageEngine} transaction on the calling thread: begin, run, commit, and roll back
+ * on any exception. Deadlocks, lock wait timeouts and serialization failures re-run the work from the start
+ * with a jittered backoff, so work must only change the database (or be safe to repeat).
+ *
+ * <p>When a transaction is already active on the thread the work simply joins it; the outer caller commits.
+ * Commits, rollbacks, retries and elapsed time are recorded in {@link Metrics} under {@code tx.<name>.*}.
+ */
+public class TransactionTemplate {
+
+    public enum Isolation {
+        DEFAULT(-1),
+        READ_COMMITTED(Connection.TRANSACTION_READ_COMMITTED),
+        REPEATABLE_READ(Connection.TRANSACTION_REPEATABLE_READ),
+        SERIALIZABLE(Connection.TRANSACTION_SERIALIZABLE);
+
+        private final int level;
+
+        Isolation(int level) {
+            this.level = level;
+        }
+    }
+
+
+    public interface Work<T, E extends Exception> {
+        T execute() throws SQLException, E;
+    }
+
+
+    private final StorageEngine engine;
+    private final int maxAttempts;
+    private final long backoffBaseMillis;
+
+
+    public TransactionTemplate(StorageEngine engine, int maxAttempts, long backoffBaseMillis) {
+        this.engine = engine;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffBaseMillis = backoffBaseMillis;
+    }
+
+
+    public <T, E extends Exception> T inTransaction(String name, Work<T, E> work) throws SQLException, E {
+        return inTransaction(name, Isolation.DEFAULT, work);
+    }
+
+
+    public <T, E extends Exception> T inTransaction(String name, Isolation isolation, Work<T, E> work)
+            throws SQLException, E {
+
+        if (engine.isTransactionActive()) {
+            return work.execute();
+        }
+
+        long start = System.nanoTime();
+        try {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    engine.beginTransaction(isolation.level);
+                    T result = work.execute();
+                    engine.commitTransaction();
+                    Metrics.increment("tx." + name + ".commits");
+                    return result;
+
+                } catch (SQLException e) {
+                    engine.rollbackTransaction();
+                    Metrics.increment("tx." + name + ".rollbacks");
+                    if (!DatabaseUtil.isRetryableLockFailure(e) || attempt >= maxAttempts) {
+                        throw e;
+                    }
+                    Metrics.increment("tx." + name + ".retries");
+                } catch (Exception | Error e) {
+                    engine.rollbackTransaction();
+                    Metrics.increment("tx." + name + ".rollbacks");
+                    throw e;
+                } finally {
+                    engine.endTransaction();
+                }
+
+                backOff(attempt);
+            }
+        } finally {
+            Metrics.add("tx." + name + ".nanos", System.nanoTime() - start);
+        }
+    }
+
+
+    private void backOff(int attempt) {
+        long ceiling = backoffBaseMillis << Math.min(attempt - 1, 6);
+        if (ceiling <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
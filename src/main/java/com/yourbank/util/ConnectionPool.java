@@ -0,0 +1,411 @@
+package com.yourbank.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * A bounded pool of physical JDBC connections.
+ * Callers borrow a connection and give it back by calling {@link Connection#close()} on it.
+ *
+ * <p>Each physical connection keeps an LRU cache of its prepared statements keyed by SQL text. Closing a
+ * statement obtained through {@link Connection#prepareStatement(String)} returns it to that cache, so a DAO
+ * that prepares the same SQL on every call reuses the already-parsed (server-side) statement.
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    private final String url;
+    private final String user;
+    private final String password;
+
+    private final int minSize;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long leakDetectionThresholdMillis;
+    private final int validationTimeoutSeconds;
+    private final int statementCacheSize;
+
+    private final BlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<Lease> leased = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final Semaphore permits;
+    private final ScheduledExecutorService housekeeper;
+
+    private volatile boolean closed = false;
+
+
+    public ConnectionPool(String url, String user, String password, int minSize, int maxSize,
+                          long borrowTimeoutMillis, long idleTimeoutMillis,
+                          long leakDetectionThresholdMillis, int validationTimeoutSeconds,
+                          int statementCacheSize) {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.leakDetectionThresholdMillis = leakDetectionThresholdMillis;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        this.housekeeper.scheduleWithFixedDelay(this::housekeep, 1, 1, TimeUnit.SECONDS);
+
+        fillToMinimum();
+    }
+
+
+    public Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool has been shut down.");
+        }
+
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException("Timed out after " + borrowTimeoutMillis +
+                        "ms waiting for a database connection (pool size " + maxSize + ").");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database connection.", e);
+        }
+
+        try {
+            PooledConnection pooled;
+            while ((pooled = idle.pollFirst()) != null) {
+                if (isUsable(pooled)) {
+                    return lease(pooled);
+                }
+                destroy(pooled);
+            }
+            return lease(createPhysical());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+
+    public int getTotalConnections() {
+        return totalConnections.get();
+    }
+
+    public int getIdleConnections() {
+        return idle.size();
+    }
+
+    public int getActiveConnections() {
+        return leased.size();
+    }
+
+
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            destroy(pooled);
+        }
+    }
+
+
+    private Connection lease(PooledConnection pooled) {
+        Lease lease = new Lease(pooled);
+        if (leakDetectionThresholdMillis > 0) {
+            lease.borrowSite = new Exception("Connection borrowed here");
+        }
+        leased.add(lease);
+        return lease.proxy;
+    }
+
+
+    private void release(Lease lease) {
+        leased.remove(lease);
+        PooledConnection pooled = lease.pooled;
+
+        try {
+            if (closed || pooled.physical.isClosed()) {
+                destroy(pooled);
+                return;
+            }
+            if (!pooled.physical.getAutoCommit()) {
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+            pooled.lastUsedAt = System.currentTimeMillis();
+            idle.offerFirst(pooled);
+        } catch (SQLException e) {
+            System.err.println("Discarding broken pooled connection: " + e.getMessage());
+            destroy(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+
+    private boolean isUsable(PooledConnection pooled) {
+        try {
+            return pooled.physical.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+
+    private PooledConnection createPhysical() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, user, password);
+        totalConnections.incrementAndGet();
+        return new PooledConnection(physical);
+    }
+
+
+    private void destroy(PooledConnection pooled) {
+        totalConnections.decrementAndGet();
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing pooled connection: " + e.getMessage());
+        }
+    }
+
+
+    private void fillToMinimum() {
+        while (!closed && totalConnections.get() < minSize) {
+            try {
+                PooledConnection pooled = createPhysical();
+                pooled.lastUsedAt = System.currentTimeMillis();
+                idle.offerLast(pooled);
+            } catch (SQLException e) {
+                System.err.println("Could not pre-fill connection pool: " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+
+        if (idleTimeoutMillis > 0) {
+            Iterator<PooledConnection> it = idle.descendingIterator();
+            while (it.hasNext() && totalConnections.get() > minSize) {
+                PooledConnection pooled = it.next();
+                if (now - pooled.lastUsedAt > idleTimeoutMillis && idle.remove(pooled)) {
+                    destroy(pooled);
+                }
+            }
+        }
+
+        if (leakDetectionThresholdMillis > 0) {
+            for (Lease lease : leased) {
+                if (!lease.leakReported && now - lease.borrowedAt > leakDetectionThresholdMillis) {
+                    lease.leakReported = true;
+                    System.err.println("WARNING: Possible connection leak, connection held for " +
+                            (now - lease.borrowedAt) + "ms by " + lease.threadName);
+                    lease.borrowSite.printStackTrace();
+                }
+            }
+        }
+
+        fillToMinimum();
+    }
+
+
+    private class PooledConnection {
+
+        private final Connection physical;
+        private final LinkedHashMap<String, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+        private volatile long lastUsedAt;
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+
+        // Only ever called by the thread holding the current lease, so the map needs no locking.
+        private PreparedStatement prepareCached(String sql, Connection leaseProxy) throws SQLException {
+            CachedStatement cached = statements.get(sql);
+            if (cached != null) {
+                if (cached.inUse) {
+                    // The same SQL is already open on this connection (e.g. nested iteration); don't share it.
+                    return physical.prepareStatement(sql);
+                }
+                Metrics.increment("db.statement_cache.hits");
+                return cached.checkOut(leaseProxy);
+            }
+
+            Metrics.increment("db.statement_cache.misses");
+            cached = new CachedStatement(physical.prepareStatement(sql));
+            statements.put(sql, cached);
+
+            if (statements.size() > statementCacheSize) {
+                Iterator<CachedStatement> eldest = statements.values().iterator();
+                CachedStatement evicted = eldest.next();
+                eldest.remove();
+                evicted.evict();
+            }
+            return cached.checkOut(leaseProxy);
+        }
+    }
+
+
+    private static class CachedStatement {
+
+        private final PreparedStatement physical;
+        private boolean inUse = false;
+        private boolean evicted = false;
+
+        private CachedStatement(PreparedStatement physical) {
+            this.physical = physical;
+        }
+
+
+        private PreparedStatement checkOut(Connection leaseProxy) {
+            inUse = true;
+            boolean[] checkedIn = {false};
+
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "close":
+                                if (!checkedIn[0]) {
+                                    checkedIn[0] = true;
+                                    checkIn();
+                                }
+                                return null;
+                            case "isClosed":
+                                return checkedIn[0] || physical.isClosed();
+                            case "getConnection":
+                                return leaseProxy;
+                            case "equals":
+                                return proxy == args[0];
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            default:
+                                break;
+                        }
+                        if (checkedIn[0]) {
+                            throw new SQLException("Statement has already been closed.");
+                        }
+                        try {
+                            return method.invoke(physical, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+
+
+        private void checkIn() throws SQLException {
+            inUse = false;
+            if (evicted) {
+                physical.close();
+                return;
+            }
+            physical.clearParameters();
+            physical.clearBatch();
+        }
+
+
+        private void evict() throws SQLException {
+            evicted = true;
+            if (!inUse) {
+                physical.close();
+            }
+        }
+    }
+
+
+    /**
+     * One borrow of a pooled connection. Each borrow gets its own proxy, so a caller that keeps
+     * a reference after closing it cannot touch the connection once someone else owns it.
+     */
+    private class Lease implements InvocationHandler {
+
+        private final PooledConnection pooled;
+        private final Connection proxy;
+        private final long borrowedAt = System.currentTimeMillis();
+        private final String threadName = Thread.currentThread().getName();
+        private Exception borrowSite;
+        private volatile boolean leakReported = false;
+        private boolean returned = false;
+
+        private Lease(PooledConnection pooled) {
+            this.pooled = pooled;
+            this.proxy = (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    synchronized (this) {
+                        if (returned) {
+                            return null;
+                        }
+                        returned = true;
+                    }
+                    release(this);
+                    return null;
+                case "isClosed":
+                    return returned || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.physical + "]";
+                default:
+                    break;
+            }
+
+            if (returned) {
+                throw new SQLException("Connection has already been returned to the pool.");
+            }
+
+            if (statementCacheSize > 0 && method.getName().equals("prepareStatement")
+                    && args.length == 1 && args[0] instanceof String sql) {
+                return pooled.prepareCached(sql, (Connection) proxy);
+            }
+
+            try {
+                return method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -1,17 +1,21 @@
 package com.yourbank.util;
 
 import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.Properties;
 
 
 public class DatabaseUtil {
 
-    private static Connection connection = null;
+    private static volatile ConnectionPool pool = null;
     private static Properties properties = new Properties();
 
+    private static final ThreadLocal<Connection> transactionConnection = new ThreadLocal<>();
+    private static final ThreadLocal<Integer> restoreIsolation = new ThreadLocal<>();
+
 
     static {
         try (InputStream input = DatabaseUtil.class.getClassLoader().getResourceAsStream("db.properties")) {
@@ -25,7 +29,10 @@ public class DatabaseUtil {
             properties.load(input);
 
 
-            Class.forName(properties.getProperty("DB_DRIVER"));
+            // The in-memory engine never opens a connection, so it runs without the driver on the classpath.
+            if (getProperty("STORAGE_ENGINE", "jdbc").trim().equalsIgnoreCase("jdbc")) {
+                Class.forName(getProperty("DB_DRIVER"));
+            }
 
         } catch (Exception e) {
             e.printStackTrace();
@@ -37,26 +44,97 @@ public class DatabaseUtil {
     private DatabaseUtil() {}
 
 
+    /**
+     * Borrows a connection from the pool. Callers must close it to hand it back.
+     * Inside {@link #beginTransaction()} this returns the thread's transaction connection instead,
+     * and closing it is a no-op until {@link #endTransaction()}.
+     */
     public static Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            connection = DriverManager.getConnection(
-                    properties.getProperty("DB_URL"),
-                    properties.getProperty("DB_USER"),
-                    properties.getProperty("DB_PASSWORD")
-            );
+        Connection bound = transactionConnection.get();
+        if (bound != null) {
+            return nonClosing(bound);
         }
-        return connection;
+        return getPool().borrow();
     }
 
-    public static String getProperty(String key, String defaultValue) {
-        return properties.getProperty(key, defaultValue);
+
+    public static void beginTransaction() throws SQLException {
+        beginTransaction(-1);
     }
 
-    public static void closeConnection() {
+
+    /**
+     * Starts a transaction at the given {@code Connection.TRANSACTION_*} level, or at the connection's
+     * default level when {@code isolation} is negative. The level is reset in {@link #endTransaction()}.
+     */
+    public static void beginTransaction(int isolation) throws SQLException {
+        if (transactionConnection.get() != null) {
+            throw new IllegalStateException("A transaction is already active on this thread.");
+        }
+        Connection connection = getPool().borrow();
+        try {
+            if (isolation >= 0) {
+                int previous = connection.getTransactionIsolation();
+                if (previous != isolation) {
+                    connection.setTransactionIsolation(isolation);
+                    restoreIsolation.set(previous);
+                }
+            }
+            connection.setAutoCommit(false);
+        } catch (SQLException e) {
+            restoreIsolation.remove();
+            connection.close();
+            throw e;
+        }
+        transactionConnection.set(connection);
+    }
+
+
+    public static boolean isTransactionActive() {
+        return transactionConnection.get() != null;
+    }
+
+
+    public static void commitTransaction() throws SQLException {
+        Connection connection = transactionConnection.get();
+        if (connection == null) {
+            throw new IllegalStateException("No transaction is active on this thread.");
+        }
+        connection.commit();
+    }
+
+
+    public static void rollbackTransaction() {
+        Connection connection = transactionConnection.get();
+        if (connection != null) {
+            try {
+                connection.rollback();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+
+    /**
+     * Releases the thread's transaction connection. Anything not yet committed is rolled back.
+     */
+    public static void endTransaction() {
+        Connection connection = transactionConnection.get();
         if (connection != null) {
+            transactionConnection.remove();
+            Integer isolation = restoreIsolation.get();
+            restoreIsolation.remove();
+            if (isolation != null) {
+                try {
+                    connection.rollback();
+                    connection.setTransactionIsolation(isolation);
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                }
+            }
             try {
                 connection.close();
-                connection = null;
             } catch (SQLException e) {
                 e.printStackTrace();
             }
@@ -64,7 +142,133 @@ public class DatabaseUtil {
     }
 
 
+    /**
+     * True for failures that are safe to retry from the start of the transaction:
+     * InnoDB deadlocks (1213), lock wait timeouts (1205) and generic serialization failures.
+     */
+    public static boolean isRetryableLockFailure(SQLException e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLException sqlException) {
+                int code = sqlException.getErrorCode();
+                if (code == 1213 || code == 1205 || "40001".equals(sqlException.getSQLState())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+
+    public static String getProperty(String key, String defaultValue) {
+        String value = getProperty(key);
+        return value != null ? value : defaultValue;
+    }
+
+    public static int getIntProperty(String key, int defaultValue) {
+        String value = getProperty(key);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Ignoring invalid value for " + key + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    public static void closeConnection() {
+        ConnectionPool current = pool;
+        if (current != null) {
+            pool = null;
+            current.close();
+        }
+    }
+
+
+    /** A {@code -DKEY=value} system property overrides db.properties, e.g. for one-off runs and benchmark forks. */
     public static String getProperty(String key) {
-        return properties.getProperty(key);
+        String value = System.getProperty(key);
+        return value != null ? value : properties.getProperty(key);
+    }
+
+
+    private static ConnectionPool getPool() {
+        ConnectionPool current = pool;
+        if (current == null) {
+            synchronized (DatabaseUtil.class) {
+                current = pool;
+                if (current == null) {
+                    current = new ConnectionPool(
+                            withDefaultUrlOptions(getProperty("DB_URL")),
+                            getProperty("DB_USER"),
+                            getProperty("DB_PASSWORD"),
+                            getIntProperty("DB_POOL_MIN_SIZE", 2),
+                            getIntProperty("DB_POOL_MAX_SIZE", 10),
+                            getIntProperty("DB_POOL_BORROW_TIMEOUT_MS", 5000),
+                            getIntProperty("DB_POOL_IDLE_TIMEOUT_MS", 600000),
+                            getIntProperty("DB_POOL_LEAK_THRESHOLD_MS", 30000),
+                            getIntProperty("DB_POOL_VALIDATION_TIMEOUT_SECONDS", 2),
+                            getIntProperty("DB_STATEMENT_CACHE_SIZE", 64)
+                    );
+                    if (Boolean.parseBoolean(getProperty("DB_MIGRATE_ON_STARTUP", "true"))) {
+                        migrateSchema(current);
+                    }
+                    pool = current;
+                }
+            }
+        }
+        return current;
+    }
+
+
+    private static void migrateSchema(ConnectionPool newPool) {
+        try (Connection connection = newPool.borrow()) {
+            new SchemaMigrator(
+                    connection,
+                    getIntProperty("DB_MIGRATION_BASELINE_VERSION", 0),
+                    getIntProperty("DB_PARTITION_MONTHS_AHEAD", 3)
+            ).migrate();
+        } catch (SQLException e) {
+            newPool.close();
+            throw new RuntimeException("Database schema migration failed: " + e.getMessage(), e);
+        }
+    }
+
+
+    private static String withDefaultUrlOptions(String url) {
+        if (url == null || !url.startsWith("jdbc:mysql:")) {
+            return url;
+        }
+        // Lets the driver send a JDBC batch as one multi-row INSERT instead of one round trip per row.
+        url = withUrlOption(url, "rewriteBatchedStatements", "true");
+        // Parse each statement once on the server; the pool's statement cache keeps the handle alive.
+        url = withUrlOption(url, "useServerPrepStmts", "true");
+        return url;
+    }
+
+
+    private static String withUrlOption(String url, String option, String value) {
+        if (url.contains(option + "=")) {
+            return url;
+        }
+        return url + (url.contains("?") ? "&" : "?") + option + "=" + value;
+    }
+
+
+    private static Connection nonClosing(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close")) {
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
     }
-}
\ No newline at end of file
+}
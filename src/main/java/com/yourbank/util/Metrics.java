@@ -0,0 +1,41 @@
+package com.yourbank.util;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Process-wide named counters. Cheap enough to bump on hot paths.
+ */
+public class Metrics {
+
+    private static final ConcurrentHashMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+
+    private Metrics() {}
+
+
+    public static void increment(String name) {
+        add(name, 1);
+    }
+
+
+    public static void add(String name, long delta) {
+        counters.computeIfAbsent(name, k -> new LongAdder()).add(delta);
+    }
+
+
+    public static long get(String name) {
+        LongAdder counter = counters.get(name);
+        return counter == null ? 0 : counter.sum();
+    }
+
+
+    public static Map<String, Long> snapshot() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        counters.forEach((name, counter) -> snapshot.put(name, counter.sum()));
+        return snapshot;
+    }
+}
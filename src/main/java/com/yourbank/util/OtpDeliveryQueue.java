@@ -0,0 +1,155 @@
+package com.yourbank.util;
+
+import com.yourbank.exception.ValidationException;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Sends OTP messages in the background so that the caller returns as soon as a message is queued.
+ *
+ * <p>Failed sends are retried with exponential backoff. Each phone number may only be sent
+ * {@code rateLimitCount} messages per {@code rateLimitWindowMillis}; further requests are refused up front.
+ * A message that is refused because the queue is full does not count against the limit.
+ * Outcomes and enqueue-to-delivery latency are recorded in {@link Metrics} under {@code otp.delivery.*}.
+ */
+public class OtpDeliveryQueue {
+
+    private static final long RETRY_BACKOFF_BASE_MS = 1000;
+
+    private final OtpSender sender;
+    private final int maxAttempts;
+    private final int queueCapacity;
+    private final int rateLimitCount;
+    private final long rateLimitWindowMillis;
+
+    private final ScheduledThreadPoolExecutor executor;
+    private final Map<String, Deque<Long>> recentSends = new ConcurrentHashMap<>();
+
+
+    public OtpDeliveryQueue(OtpSender sender, int threads, int queueCapacity, int maxAttempts,
+                            int rateLimitCount, long rateLimitWindowMillis) {
+        this.sender = sender;
+        this.queueCapacity = queueCapacity;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.rateLimitCount = rateLimitCount;
+        this.rateLimitWindowMillis = rateLimitWindowMillis;
+
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ScheduledThreadPoolExecutor(threads, r -> {
+            Thread t = new Thread(r, "otp-delivery-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.executor.setRemoveOnCancelPolicy(true);
+        this.executor.scheduleWithFixedDelay(this::pruneRateLimits, 1, 1, TimeUnit.MINUTES);
+    }
+
+
+    /**
+     * Queues a message for delivery and returns immediately.
+     *
+     * @throws ValidationException if the number has hit its rate limit or the queue is full
+     */
+    public void enqueue(String toPhoneNumber, String messageBody) throws ValidationException {
+        if (executor.getQueue().size() >= queueCapacity) {
+            Metrics.increment("otp.delivery.rejected");
+            throw new ValidationException("Could not send OTP right now. Please try again later.");
+        }
+        long slot = tryAcquireSendSlot(toPhoneNumber);
+        if (slot < 0) {
+            Metrics.increment("otp.delivery.rate_limited");
+            throw new ValidationException("Too many codes were requested for this number. Please wait a few minutes.");
+        }
+
+        long enqueuedAt = System.nanoTime();
+        try {
+            executor.execute(() -> attempt(toPhoneNumber, messageBody, 1, enqueuedAt));
+        } catch (RejectedExecutionException e) {
+            releaseSendSlot(toPhoneNumber, slot);
+            Metrics.increment("otp.delivery.rejected");
+            throw new ValidationException("Could not send OTP right now. Please try again later.");
+        }
+    }
+
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+
+    private void attempt(String toPhoneNumber, String messageBody, int attempt, long enqueuedAt) {
+        try {
+            sender.send(toPhoneNumber, messageBody);
+            Metrics.increment("otp.delivery.sent");
+            Metrics.add("otp.delivery.latency_nanos", System.nanoTime() - enqueuedAt);
+        } catch (Exception e) {
+            if (attempt >= maxAttempts || executor.isShutdown()) {
+                Metrics.increment("otp.delivery.failed");
+                System.err.println("Error sending OTP SMS after " + attempt + " attempt(s): " + e.getMessage());
+                return;
+            }
+            Metrics.increment("otp.delivery.retries");
+            long delay = RETRY_BACKOFF_BASE_MS << (attempt - 1);
+            executor.schedule(() -> attempt(toPhoneNumber, messageBody, attempt + 1, enqueuedAt),
+                    delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+
+    // Returns the time the send was recorded at, for releaseSendSlot, or -1 if the number is over its limit.
+    private long tryAcquireSendSlot(String toPhoneNumber) {
+        if (rateLimitCount <= 0) {
+            return 0;
+        }
+        long now = System.currentTimeMillis();
+        boolean[] acquired = {false};
+
+        recentSends.compute(toPhoneNumber, (number, sends) -> {
+            if (sends == null) {
+                sends = new ArrayDeque<>();
+            }
+            while (!sends.isEmpty() && now - sends.peekFirst() >= rateLimitWindowMillis) {
+                sends.pollFirst();
+            }
+            if (sends.size() < rateLimitCount) {
+                sends.addLast(now);
+                acquired[0] = true;
+            }
+            return sends;
+        });
+        return acquired[0] ? now : -1;
+    }
+
+
+    private void releaseSendSlot(String toPhoneNumber, long slot) {
+        if (rateLimitCount <= 0) {
+            return;
+        }
+        recentSends.computeIfPresent(toPhoneNumber, (number, sends) -> {
+            sends.removeLastOccurrence(slot);
+            return sends.isEmpty() ? null : sends;
+        });
+    }
+
+
+    // Drops numbers with no sends left in the window, so the map only holds recently active numbers.
+    private void pruneRateLimits() {
+        long now = System.currentTimeMillis();
+        for (String number : recentSends.keySet()) {
+            recentSends.computeIfPresent(number, (n, sends) -> {
+                while (!sends.isEmpty() && now - sends.peekFirst() >= rateLimitWindowMillis) {
+                    sends.pollFirst();
+                }
+                return sends.isEmpty() ? null : sends;
+            });
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.yourbank.util;
+
+
+/**
+ * Delivers a one-time-password message to a phone number. Implementations may block on network I/O;
+ * they are only ever called from the {@link OtpDeliveryQueue} worker threads.
+ */
+public interface OtpSender {
+
+    void send(String toPhoneNumber, String messageBody) throws Exception;
+}
@@ -1,55 +1,53 @@
 package com.yourbank.util;
 
 
-import com.twilio.Twilio;
-import com.twilio.rest.api.v2010.account.Message;
-import com.twilio.type.PhoneNumber;
+import com.yourbank.exception.ValidationException;
 
+import java.nio.file.Path;
 
-public class OtpService {
-
-
-    private static final String ACCOUNT_SID = DatabaseUtil.getProperty("TWILIO_ACCOUNT_SID");
-    private static final String AUTH_TOKEN = DatabaseUtil.getProperty("TWILIO_AUTH_TOKEN");
-    private static final String TWILIO_PHONE_NUMBER = DatabaseUtil.getProperty("TWILIO_PHONE_NUMBER");
-
-
-    private static boolean isInitialized = false;
-
-
-    private static void initializeTwilio() {
-        if (!isInitialized) {
-            Twilio.init(ACCOUNT_SID, AUTH_TOKEN);
-            isInitialized = true;
-        }
-    }
 
+public class OtpService {
 
-    public static String generateAndSendOtp(String toPhoneNumber) {
 
-        initializeTwilio();
+    /**
+     * Queues a code for delivery. Returns as soon as the message is queued;
+     * the SMS itself is sent (and retried) in the background.
+     */
+    public static void sendOtp(String toPhoneNumber, String otp) throws ValidationException {
 
-        String otp = SecurityUtil.generateOtp();
         String messageBody = "Your " + DatabaseUtil.getProperty("BANK_NAME", "BankSim") + " verification code is: " + otp;
 
-        try {
-
-            Message message = Message.creator(
-                    new PhoneNumber(toPhoneNumber),
-                    new PhoneNumber(TWILIO_PHONE_NUMBER),
-                    messageBody
-            ).create();
-
+        DeliveryHolder.QUEUE.enqueue(toPhoneNumber, messageBody);
+    }
 
-            System.out.println("OTP SMS sent successfully! SID: " + message.getSid());
 
-            return otp;
+    private static OtpSender createSender() {
+        String senderName = DatabaseUtil.getProperty("OTP_SENDER", "twilio");
 
-        } catch (Exception e) {
+        if (senderName.equalsIgnoreCase("stub")) {
+            String outbox = DatabaseUtil.getProperty("OTP_STUB_FILE");
+            return new StubOtpSender(outbox == null || outbox.isBlank() ? null : Path.of(outbox));
+        }
+        if (!senderName.equalsIgnoreCase("twilio")) {
+            throw new IllegalStateException("Unknown OTP_SENDER '" + senderName + "'. Use 'twilio' or 'stub'.");
+        }
+        return new TwilioOtpSender(
+                DatabaseUtil.getProperty("TWILIO_ACCOUNT_SID"),
+                DatabaseUtil.getProperty("TWILIO_AUTH_TOKEN"),
+                DatabaseUtil.getProperty("TWILIO_PHONE_NUMBER")
+        );
+    }
 
-            System.err.println("Error sending OTP SMS: " + e.getMessage());
 
-            throw new RuntimeException("Could not send OTP. Please try again later.", e);
-        }
+    // Built on first use by the class-initialisation lock, so concurrent first logins share one sender.
+    private static class DeliveryHolder {
+        private static final OtpDeliveryQueue QUEUE = new OtpDeliveryQueue(
+                createSender(),
+                DatabaseUtil.getIntProperty("OTP_DELIVERY_THREADS", 2),
+                DatabaseUtil.getIntProperty("OTP_DELIVERY_QUEUE_CAPACITY", 1000),
+                DatabaseUtil.getIntProperty("OTP_DELIVERY_MAX_ATTEMPTS", 3),
+                DatabaseUtil.getIntProperty("OTP_RATE_LIMIT_COUNT", 5),
+                DatabaseUtil.getIntProperty("OTP_RATE_LIMIT_WINDOW_SECONDS", 600) * 1000L
+        );
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,150 @@
+package com.yourbank.util;
+
+import com.yourbank.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Holds issued one-time passwords until they are used, expire, or are guessed wrong too often.
+ *
+ * <p>Only a salted SHA-256 of each code is kept, and codes are compared in constant time. A code is single use:
+ * a correct guess removes it. After {@code maxAttempts} wrong guesses the key is locked out for
+ * {@code lockoutMillis}, during which no new code can be issued for it either. The store never holds more than
+ * {@code maxEntries} keys; when it is full of live entries, new codes are refused rather than evicting someone's.
+ */
+public class OtpStore {
+
+    private static final SecureRandom random = new SecureRandom();
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final int maxAttempts;
+    private final long lockoutMillis;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+
+    public OtpStore(int maxEntries, long ttlMillis, int maxAttempts, long lockoutMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.lockoutMillis = lockoutMillis;
+    }
+
+
+    /** Creates a new code for {@code key}, replacing any earlier one, and returns it in plain text for delivery. */
+    public String issue(String key) throws ValidationException {
+        long now = System.currentTimeMillis();
+
+        if (entries.size() >= maxEntries) {
+            purgeExpired(now);
+            if (entries.size() >= maxEntries && !entries.containsKey(key)) {
+                Metrics.increment("otp.store.full");
+                throw new ValidationException("Could not send OTP right now. Please try again later.");
+            }
+        }
+
+        String otp = SecurityUtil.generateOtp();
+        byte[] salt = new byte[16];
+        random.nextBytes(salt);
+        Entry issued = new Entry(salt, digest(salt, otp), now + ttlMillis, 0);
+
+        Entry current = entries.compute(key, (k, existing) ->
+                existing != null && existing.isLockedOut(now) ? existing : issued);
+        if (current != issued) {
+            throw new ValidationException("Too many wrong codes. Please try again in a few minutes.");
+        }
+
+        Metrics.increment("otp.store.issued");
+        return otp;
+    }
+
+
+    /**
+     * Checks a code entered for {@code key}. Returns false for a wrong, expired or missing code.
+     *
+     * @throws ValidationException if the key is locked out after too many wrong codes
+     */
+    public boolean verify(String key, String code) throws ValidationException {
+        long now = System.currentTimeMillis();
+        boolean[] matched = {false};
+
+        Entry after = entries.computeIfPresent(key, (k, entry) -> {
+            if (entry.isLockedOut(now)) {
+                return entry;
+            }
+            if (now >= entry.expiresAt) {
+                return null;
+            }
+            if (code != null && MessageDigest.isEqual(entry.hash, digest(entry.salt, code))) {
+                matched[0] = true;
+                return null;
+            }
+            int attempts = entry.attempts + 1;
+            if (attempts >= maxAttempts) {
+                Metrics.increment("otp.store.lockouts");
+                return new Entry(null, null, now + lockoutMillis, attempts);
+            }
+            return new Entry(entry.salt, entry.hash, entry.expiresAt, attempts);
+        });
+
+        if (after != null && after.isLockedOut(now)) {
+            throw new ValidationException("Too many wrong codes. Please try again in a few minutes.");
+        }
+        Metrics.increment(matched[0] ? "otp.store.verified" : "otp.store.rejected");
+        return matched[0];
+    }
+
+
+    public void invalidate(String key) {
+        entries.computeIfPresent(key, (k, entry) -> entry.hash == null ? entry : null);
+    }
+
+
+    public int size() {
+        return entries.size();
+    }
+
+
+    private void purgeExpired(long now) {
+        entries.values().removeIf(entry -> now >= entry.expiresAt);
+    }
+
+
+    private static byte[] digest(byte[] salt, String code) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            sha256.update(salt);
+            return sha256.digest(code.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+
+    // A lockout is an entry without a hash; it expires like any other entry.
+    private static class Entry {
+
+        private final byte[] salt;
+        private final byte[] hash;
+        private final long expiresAt;
+        private final int attempts;
+
+        private Entry(byte[] salt, byte[] hash, long expiresAt, int attempts) {
+            this.salt = salt;
+            this.hash = hash;
+            this.expiresAt = expiresAt;
+            this.attempts = attempts;
+        }
+
+        private boolean isLockedOut(long now) {
+            return hash == null && now < expiresAt;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.yourbank.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+
+/**
+ * Runs BCrypt hashing and verification on a small dedicated pool so that a burst of logins cannot occupy
+ * every request thread. The queue is bounded: once it is full, new work is rejected immediately with a
+ * {@link RejectedExecutionException} instead of piling up, which callers report as "busy, try again".
+ *
+ * <p>Queue wait and hashing time are recorded in {@link Metrics} under {@code password_hasher.*}.
+ */
+public class PasswordHasher {
+
+    private static final ThreadPoolExecutor executor = createExecutor();
+
+
+    private PasswordHasher() {}
+
+
+    public static CompletableFuture<String> hashAsync(String plainTextPassword) {
+        return submit(() -> SecurityUtil.hashPassword(plainTextPassword));
+    }
+
+
+    public static CompletableFuture<Boolean> checkAsync(String plainTextPassword, String hashedPassword) {
+        return submit(() -> SecurityUtil.checkPassword(plainTextPassword, hashedPassword));
+    }
+
+
+    /**
+     * Blocking form of {@link #hashAsync}, for callers that have nothing else to do meanwhile.
+     * The work still runs on the hashing pool, so it counts against the same bound.
+     */
+    public static String hash(String plainTextPassword) {
+        return await(hashAsync(plainTextPassword));
+    }
+
+
+    public static boolean check(String plainTextPassword, String hashedPassword) {
+        return await(checkAsync(plainTextPassword, hashedPassword));
+    }
+
+
+    public static int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+
+    private static <T> CompletableFuture<T> submit(Supplier<T> work) {
+        long enqueuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long startedAt = System.nanoTime();
+                Metrics.add("password_hasher.queue_nanos", startedAt - enqueuedAt);
+                try {
+                    return work.get();
+                } finally {
+                    Metrics.increment("password_hasher.completed");
+                    Metrics.add("password_hasher.run_nanos", System.nanoTime() - startedAt);
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            Metrics.increment("password_hasher.rejected");
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+
+    private static ThreadPoolExecutor createExecutor() {
+        int defaultThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        int threads = DatabaseUtil.getIntProperty("PASSWORD_HASH_THREADS", defaultThreads);
+        int queueCapacity = DatabaseUtil.getIntProperty("PASSWORD_HASH_QUEUE_CAPACITY", 256);
+
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "password-hasher-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+}
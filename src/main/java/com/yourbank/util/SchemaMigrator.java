@@ -0,0 +1,331 @@
+package com.yourbank.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+
+/**
+ * Applies the versioned SQL scripts under {@code db/migration} in order and records each one, with a checksum,
+ * in {@code schema_migrations}. Scripts are named {@code V<version>__<description>.sql}; an applied script
+ * must never be edited, and a checksum mismatch stops startup.
+ *
+ * <p>Afterwards it keeps the monthly range partitions of {@code transactions} created a few months ahead.
+ */
+public class SchemaMigrator {
+
+    private static final String MIGRATION_LOCATION = "db/migration";
+    private static final Pattern MIGRATION_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+    private static final String LOCK_NAME = "banking_simulator_schema_migrations";
+    private static final int LOCK_TIMEOUT_SECONDS = 60;
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyy_MM_dd");
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final Connection connection;
+    private final int baselineVersion;
+    private final int partitionMonthsAhead;
+
+
+    public SchemaMigrator(Connection connection, int baselineVersion, int partitionMonthsAhead) {
+        this.connection = connection;
+        this.baselineVersion = baselineVersion;
+        this.partitionMonthsAhead = partitionMonthsAhead;
+    }
+
+
+    public void migrate() throws SQLException {
+        acquireLock();
+        try {
+            boolean freshHistory = createHistoryTable();
+            Map<Integer, String> applied = loadAppliedChecksums();
+
+            for (Migration migration : findMigrations()) {
+                String recorded = applied.get(migration.version);
+                if (recorded != null) {
+                    if (!recorded.equals(migration.checksum)) {
+                        throw new SQLException("Migration " + migration.fileName + " was modified after it was applied " +
+                                "(recorded checksum " + recorded + ", found " + migration.checksum + ").");
+                    }
+                    continue;
+                }
+
+                if (freshHistory && migration.version <= baselineVersion) {
+                    System.out.println("Baselining schema migration " + migration.fileName);
+                } else {
+                    System.out.println("Applying schema migration " + migration.fileName);
+                    execute(migration);
+                }
+                record(migration);
+            }
+
+            ensureTransactionPartitions();
+        } finally {
+            releaseLock();
+        }
+    }
+
+
+    private boolean createHistoryTable() throws SQLException {
+        boolean exists;
+        try (ResultSet rs = connection.getMetaData().getTables(connection.getCatalog(), null, "schema_migrations", null)) {
+            exists = rs.next();
+        }
+        if (exists) {
+            return false;
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("CREATE TABLE schema_migrations (" +
+                    "version INT PRIMARY KEY, " +
+                    "description VARCHAR(200) NOT NULL, " +
+                    "checksum CHAR(64) NOT NULL, " +
+                    "applied_at DATETIME NOT NULL)");
+        }
+        return true;
+    }
+
+
+    private Map<Integer, String> loadAppliedChecksums() throws SQLException {
+        Map<Integer, String> applied = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT version, checksum FROM schema_migrations")) {
+            while (rs.next()) {
+                applied.put(rs.getInt("version"), rs.getString("checksum"));
+            }
+        }
+        return applied;
+    }
+
+
+    private void execute(Migration migration) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : splitStatements(migration.script)) {
+                statement.execute(sql);
+            }
+        } catch (SQLException e) {
+            throw new SQLException("Schema migration " + migration.fileName + " failed: " + e.getMessage(),
+                    e.getSQLState(), e.getErrorCode(), e);
+        }
+    }
+
+
+    private void record(Migration migration) throws SQLException {
+        String sql = "INSERT INTO schema_migrations (version, description, checksum, applied_at) VALUES (?, ?, ?, ?)";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, migration.version);
+            statement.setString(2, migration.description);
+            statement.setString(3, migration.checksum);
+            statement.setObject(4, LocalDateTime.now());
+            statement.executeUpdate();
+        }
+    }
+
+
+    /**
+     * Splits off the open-ended {@code p_future} partition so that every month up to
+     * {@code partitionMonthsAhead} from now has its own partition. Does nothing if the table is not partitioned.
+     */
+    private void ensureTransactionPartitions() throws SQLException {
+        String sql = "SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'transactions' AND PARTITION_NAME LIKE 'p____\\_%'";
+
+        LocalDate lastBounded = null;
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            while (rs.next()) {
+                LocalDate month = LocalDate.parse(rs.getString(1).substring(1) + "_01", PARTITION_MONTH);
+                if (lastBounded == null || month.isAfter(lastBounded)) {
+                    lastBounded = month;
+                }
+            }
+        }
+        if (lastBounded == null) {
+            return;
+        }
+
+        LocalDate target = LocalDate.now().withDayOfMonth(1).plusMonths(partitionMonthsAhead);
+        List<String> partitions = new ArrayList<>();
+        for (LocalDate month = lastBounded.plusMonths(1); !month.isAfter(target); month = month.plusMonths(1)) {
+            partitions.add("PARTITION p" + month.format(PARTITION_NAME) +
+                    " VALUES LESS THAN ('" + month.plusMonths(1) + "')");
+        }
+        if (partitions.isEmpty()) {
+            return;
+        }
+
+        partitions.add("PARTITION p_future VALUES LESS THAN (MAXVALUE)");
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("ALTER TABLE transactions REORGANIZE PARTITION p_future INTO (" +
+                    String.join(", ", partitions) + ")");
+        }
+        System.out.println("Added " + (partitions.size() - 1) + " monthly partition(s) to transactions.");
+    }
+
+
+    private void acquireLock() throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            statement.setString(1, LOCK_NAME);
+            statement.setInt(2, LOCK_TIMEOUT_SECONDS);
+            try (ResultSet rs = statement.executeQuery()) {
+                if (!rs.next() || rs.getInt(1) != 1) {
+                    throw new SQLException("Timed out waiting for another node to finish schema migration.");
+                }
+            }
+        }
+    }
+
+
+    private void releaseLock() {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            statement.setString(1, LOCK_NAME);
+            statement.executeQuery().close();
+        } catch (SQLException e) {
+            System.err.println("Could not release schema migration lock: " + e.getMessage());
+        }
+    }
+
+
+    private static List<String> splitStatements(String script) {
+        StringBuilder withoutComments = new StringBuilder();
+        for (String line : script.split("\\R")) {
+            String trimmed = line.trim();
+            if (!trimmed.startsWith("--")) {
+                withoutComments.append(line).append('\n');
+            }
+        }
+
+        List<String> statements = new ArrayList<>();
+        for (String sql : withoutComments.toString().split(";")) {
+            if (!sql.trim().isEmpty()) {
+                statements.add(sql.trim());
+            }
+        }
+        return statements;
+    }
+
+
+    private static List<Migration> findMigrations() throws SQLException {
+        List<String> fileNames = new ArrayList<>();
+        try {
+            Enumeration<URL> locations = SchemaMigrator.class.getClassLoader().getResources(MIGRATION_LOCATION);
+            while (locations.hasMoreElements()) {
+                fileNames.addAll(listScripts(locations.nextElement()));
+            }
+        } catch (IOException | URISyntaxException e) {
+            throw new SQLException("Could not list schema migrations.", e);
+        }
+
+        List<Migration> migrations = new ArrayList<>();
+        Map<Integer, String> seen = new HashMap<>();
+        for (String fileName : fileNames) {
+            Matcher matcher = MIGRATION_NAME.matcher(fileName);
+            if (!matcher.matches()) {
+                continue;
+            }
+            int version = Integer.parseInt(matcher.group(1));
+            String previous = seen.put(version, fileName);
+            if (previous != null) {
+                throw new SQLException("Duplicate schema migration version " + version + ": " + previous + ", " + fileName);
+            }
+            String script = readScript(fileName);
+            migrations.add(new Migration(version, matcher.group(2).replace('_', ' '), fileName, script, sha256(script)));
+        }
+
+        migrations.sort((a, b) -> Integer.compare(a.version, b.version));
+        return migrations;
+    }
+
+
+    private static List<String> listScripts(URL location) throws IOException, URISyntaxException {
+        List<String> names = new ArrayList<>();
+        if ("jar".equals(location.getProtocol())) {
+            JarURLConnection jarConnection = (JarURLConnection) location.openConnection();
+            jarConnection.setUseCaches(false);
+            try (JarFile jar = jarConnection.getJarFile()) {
+                Enumeration<JarEntry> entries = jar.entries();
+                while (entries.hasMoreElements()) {
+                    String name = entries.nextElement().getName();
+                    if (name.startsWith(MIGRATION_LOCATION + "/") && name.endsWith(".sql")) {
+                        names.add(name.substring(MIGRATION_LOCATION.length() + 1));
+                    }
+                }
+            }
+        } else {
+            Path directory = Paths.get(location.toURI());
+            try (Stream<Path> files = Files.list(directory)) {
+                files.map(path -> path.getFileName().toString())
+                        .filter(name -> name.endsWith(".sql"))
+                        .forEach(names::add);
+            }
+        }
+        return names;
+    }
+
+
+    private static String readScript(String fileName) throws SQLException {
+        try (InputStream input = SchemaMigrator.class.getClassLoader()
+                .getResourceAsStream(MIGRATION_LOCATION + "/" + fileName)) {
+            if (input == null) {
+                throw new SQLException("Schema migration not found: " + fileName);
+            }
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8).replace("\r\n", "\n");
+        } catch (IOException e) {
+            throw new SQLException("Could not read schema migration " + fileName, e);
+        }
+    }
+
+
+    private static String sha256(String script) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(script.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+
+    private static class Migration {
+
+        private final int version;
+        private final String description;
+        private final String fileName;
+        private final String script;
+        private final String checksum;
+
+        private Migration(int version, String description, String fileName, String script, String checksum) {
+            this.version = version;
+            this.description = description;
+            this.fileName = fileName;
+            this.script = script;
+            this.checksum = checksum;
+        }
+    }
+}
@@ -1,6 +1,11 @@
 package com.yourbank.util;
 
 import org.mindrot.jbcrypt.BCrypt;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.security.SecureRandom;
 
 public class SecurityUtil {
@@ -8,10 +13,13 @@ public class SecurityUtil {
 
     private static final SecureRandom random = new SecureRandom();
 
+    private static final int MIN_COST = 4;
+    private static final int MAX_COST = 31;
+
 
     public static String hashPassword(String plainTextPassword) {
 
-        return BCrypt.hashpw(plainTextPassword, BCrypt.gensalt(12));
+        return BCrypt.hashpw(plainTextPassword, BCrypt.gensalt(getTargetCost()));
     }
 
 
@@ -25,8 +33,101 @@ public class SecurityUtil {
     }
 
 
+    /**
+     * The BCrypt cost new hashes are created with. Either fixed by {@code BCRYPT_COST}, or calibrated once so
+     * that one hash takes about {@code BCRYPT_TARGET_MILLIS} on this machine. The calibrated cost is saved to
+     * {@code BCRYPT_CALIBRATION_FILE} and reused on later starts, so it does not drift with the load at startup.
+     */
+    public static int getTargetCost() {
+        return CostHolder.TARGET_COST;
+    }
+
+
+    /** Reads the cost from a {@code $2a$NN$...} hash, or returns -1 if it is not a BCrypt hash. */
+    public static int costOf(String hashedPassword) {
+        if (hashedPassword == null || hashedPassword.length() < 7 || hashedPassword.charAt(0) != '$'
+                || hashedPassword.charAt(3) != '$' || hashedPassword.charAt(6) != '$') {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(hashedPassword.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+
+    /** Only weaker hashes are upgraded; one made at a higher cost (say, on faster hardware) is left alone. */
+    public static boolean needsRehash(String hashedPassword) {
+        return costOf(hashedPassword) < getTargetCost();
+    }
+
+
     public static String generateOtp() {
         int otpNumber = 100000 + random.nextInt(900000);
         return String.valueOf(otpNumber);
     }
-}
\ No newline at end of file
+
+
+    private static int calibrateCost() {
+        int fixedCost = DatabaseUtil.getIntProperty("BCRYPT_COST", 0);
+        if (fixedCost > 0) {
+            return clamp(fixedCost, MIN_COST, MAX_COST);
+        }
+
+        int minCost = clamp(DatabaseUtil.getIntProperty("BCRYPT_MIN_COST", 10), MIN_COST, MAX_COST);
+        int maxCost = clamp(DatabaseUtil.getIntProperty("BCRYPT_MAX_COST", 14), minCost, MAX_COST);
+
+        String calibrationFile = DatabaseUtil.getProperty("BCRYPT_CALIBRATION_FILE", "data/bcrypt-cost");
+        Path saved = calibrationFile == null || calibrationFile.isBlank() ? null : Path.of(calibrationFile);
+        if (saved != null && Files.isRegularFile(saved)) {
+            try {
+                return clamp(Integer.parseInt(Files.readString(saved, StandardCharsets.UTF_8).trim()), minCost, maxCost);
+            } catch (IOException | NumberFormatException e) {
+                System.err.println("Ignoring unreadable BCrypt calibration in " + saved + ": " + e.getMessage());
+            }
+        }
+
+        long targetNanos = DatabaseUtil.getIntProperty("BCRYPT_TARGET_MILLIS", 250) * 1_000_000L;
+
+        // Each cost step doubles the work, so time one hash at the floor (best of three, after JIT warm-up)
+        // and pick the highest cost whose extrapolated time still fits the budget.
+        String salt = BCrypt.gensalt(minCost);
+        BCrypt.hashpw("calibration", salt);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            BCrypt.hashpw("calibration", salt);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        int cost = minCost;
+        while (cost < maxCost && best * (1L << (cost + 1 - minCost)) <= targetNanos) {
+            cost++;
+        }
+
+        System.out.println("BCrypt cost calibrated to " + cost + " (cost " + minCost + " took " +
+                best / 1_000_000 + "ms, target " + targetNanos / 1_000_000 + "ms).");
+        if (saved != null) {
+            try {
+                if (saved.getParent() != null) {
+                    Files.createDirectories(saved.getParent());
+                }
+                Files.writeString(saved, cost + System.lineSeparator(), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                System.err.println("Could not save the BCrypt calibration to " + saved + ": " + e.getMessage());
+            }
+        }
+        return cost;
+    }
+
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+
+    private static class CostHolder {
+        private static final int TARGET_COST = calibrateCost();
+    }
+}
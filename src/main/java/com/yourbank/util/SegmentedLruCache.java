@@ -0,0 +1,214 @@
+package com.yourbank.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+
+/**
+ * Size-bounded cache with segmented LRU eviction and a per-entry time to live.
+ *
+ * <p>New entries go into a small probation segment; only a second hit promotes them to the protected segment.
+ * A scan of one-off keys (an admin paging through every account) therefore cycles through probation and
+ * cannot flush the hot entries that live in protected.
+ *
+ * <p>Keys are spread over independently locked shards, each a small segmented LRU of its own, so lookups of
+ * different keys rarely wait for each other. Recency is therefore tracked per shard rather than globally.
+ *
+ * <p>Hits, misses, evictions and expirations are counted in {@link Metrics} under {@code <name>.*}.
+ */
+public class SegmentedLruCache<K, V> {
+
+    private static final int MAX_SHARDS = 16;
+    private static final int MIN_ENTRIES_PER_SHARD = 64;
+
+    private final Shard<K, V>[] shards;
+
+
+    @SuppressWarnings("unchecked")
+    public SegmentedLruCache(String name, int maxEntries, long ttl, TimeUnit unit) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        int shardCount = Math.max(1, Math.min(MAX_SHARDS, maxEntries / MIN_ENTRIES_PER_SHARD));
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            // Spread the remainder so the shards add up to exactly maxEntries.
+            int capacity = maxEntries / shardCount + (i < maxEntries % shardCount ? 1 : 0);
+            shards[i] = new Shard<>(name, capacity, unit.toNanos(ttl));
+        }
+    }
+
+
+    public V get(K key) {
+        return shardFor(key).get(key);
+    }
+
+
+    public void put(K key, V value) {
+        shardFor(key).put(key, value);
+    }
+
+
+    /**
+     * Replaces a live entry's value with {@code change} applied to it, keeping its segment and its expiry.
+     * Does nothing if the key is absent or expired, and counts neither a hit nor a miss.
+     */
+    public void update(K key, UnaryOperator<V> change) {
+        shardFor(key).update(key, change);
+    }
+
+
+    public void invalidate(K key) {
+        shardFor(key).invalidate(key);
+    }
+
+
+    public void clear() {
+        for (Shard<K, V> shard : shards) {
+            shard.clear();
+        }
+    }
+
+
+    public int size() {
+        int size = 0;
+        for (Shard<K, V> shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+
+    private Shard<K, V> shardFor(K key) {
+        int hash = key.hashCode();
+        return shards[Math.floorMod(hash ^ (hash >>> 16), shards.length)];
+    }
+
+
+    private static final class Shard<K, V> {
+
+        private final String name;
+        private final int maxEntries;
+        private final int protectedCapacity;
+        private final long ttlNanos;
+
+        private final LinkedHashMap<K, Entry<V>> probation = new LinkedHashMap<>(16, 0.75f, true);
+        private final LinkedHashMap<K, Entry<V>> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+
+
+        private Shard(String name, int maxEntries, long ttlNanos) {
+            this.name = name;
+            this.maxEntries = maxEntries;
+            this.protectedCapacity = Math.max(1, maxEntries * 4 / 5);
+            this.ttlNanos = ttlNanos;
+        }
+
+
+        private synchronized V get(K key) {
+            Entry<V> entry = protectedSegment.get(key);
+            if (entry == null) {
+                entry = probation.get(key);
+                if (entry != null && !isExpired(entry)) {
+                    probation.remove(key);
+                    protectedSegment.put(key, entry);
+                    demoteOverflow();
+                }
+            }
+
+            if (entry == null) {
+                Metrics.increment(name + ".misses");
+                return null;
+            }
+            if (isExpired(entry)) {
+                probation.remove(key);
+                protectedSegment.remove(key);
+                Metrics.increment(name + ".expirations");
+                Metrics.increment(name + ".misses");
+                return null;
+            }
+
+            Metrics.increment(name + ".hits");
+            return entry.value;
+        }
+
+
+        private synchronized void put(K key, V value) {
+            Entry<V> entry = new Entry<>(value, System.nanoTime() + ttlNanos);
+            if (protectedSegment.containsKey(key)) {
+                protectedSegment.put(key, entry);
+                return;
+            }
+            probation.put(key, entry);
+            evictOverflow();
+        }
+
+
+        // Unlike get(), an update never promotes a probation entry: a write is not a sign of popularity.
+        private synchronized void update(K key, UnaryOperator<V> change) {
+            LinkedHashMap<K, Entry<V>> segment = protectedSegment.containsKey(key) ? protectedSegment : probation;
+            Entry<V> entry = segment.get(key);
+            if (entry != null && !isExpired(entry)) {
+                segment.put(key, new Entry<>(change.apply(entry.value), entry.expiresAtNanos));
+            }
+        }
+
+
+        private synchronized void invalidate(K key) {
+            probation.remove(key);
+            protectedSegment.remove(key);
+        }
+
+
+        private synchronized void clear() {
+            probation.clear();
+            protectedSegment.clear();
+        }
+
+
+        private synchronized int size() {
+            return probation.size() + protectedSegment.size();
+        }
+
+
+        private boolean isExpired(Entry<V> entry) {
+            return System.nanoTime() - entry.expiresAtNanos > 0;
+        }
+
+
+        private void demoteOverflow() {
+            while (protectedSegment.size() > protectedCapacity) {
+                Iterator<Map.Entry<K, Entry<V>>> eldest = protectedSegment.entrySet().iterator();
+                Map.Entry<K, Entry<V>> demoted = eldest.next();
+                eldest.remove();
+                probation.put(demoted.getKey(), demoted.getValue());
+            }
+            evictOverflow();
+        }
+
+
+        private void evictOverflow() {
+            while (size() > maxEntries) {
+                LinkedHashMap<K, Entry<V>> victims = probation.isEmpty() ? protectedSegment : probation;
+                Iterator<K> eldest = victims.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+                Metrics.increment(name + ".evictions");
+            }
+        }
+    }
+
+
+    private static class Entry<V> {
+
+        private final V value;
+        private final long expiresAtNanos;
+
+        private Entry(V value, long expiresAtNanos) {
+            this.value = value;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.yourbank.util;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+
+
+/**
+ * Offline stand-in for an SMS provider. Messages are printed to the console, or appended to a file when
+ * one is given, so codes can be read back without a Twilio account.
+ */
+public class StubOtpSender implements OtpSender {
+
+    private final Path outboxFile;
+
+
+    public StubOtpSender(Path outboxFile) {
+        this.outboxFile = outboxFile;
+    }
+
+
+    @Override
+    public void send(String toPhoneNumber, String messageBody) throws IOException {
+        String line = LocalDateTime.now() + " to " + toPhoneNumber + ": " + messageBody;
+
+        if (outboxFile == null) {
+            System.out.println("[OTP stub] " + line);
+            return;
+        }
+        synchronized (this) {
+            Files.writeString(outboxFile, line + System.lineSeparator(), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.yourbank.util;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Time-ordered transaction IDs in the UUIDv7 layout (RFC 9562): 48 bits of Unix milliseconds, a 12-bit counter
+ * that keeps IDs from one process strictly increasing within a millisecond, and 62 random bits.
+ *
+ * <p>Because new IDs sort after old ones, ledger inserts land at the right-hand edge of the primary key
+ * instead of splitting random B-tree pages, and no SecureRandom entropy is consumed per insert.
+ */
+public class TransactionIdGenerator {
+
+    private static final int COUNTER_BITS = 12;
+
+    // (unix millis << 12) | counter of the last ID handed out.
+    private static final AtomicLong lastTimestampAndCounter = new AtomicLong();
+
+
+    private TransactionIdGenerator() {}
+
+
+    public static UUID next() {
+        long floor = System.currentTimeMillis() << COUNTER_BITS;
+        // If the counter overflows within one millisecond it carries into the timestamp, borrowing the next one.
+        long stamp = lastTimestampAndCounter.updateAndGet(last -> Math.max(last + 1, floor));
+
+        long millis = stamp >>> COUNTER_BITS;
+        long counter = stamp & ((1L << COUNTER_BITS) - 1);
+
+        long mostSignificant = (millis << 16) | (0x7L << 12) | counter;
+        long leastSignificant = (ThreadLocalRandom.current().nextLong() >>> 2) | 0x8000000000000000L;
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+
+    public static byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+
+
+    public static UUID fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
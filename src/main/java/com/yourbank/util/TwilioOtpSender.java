@@ -0,0 +1,29 @@
+package com.yourbank.util;
+
+import com.twilio.Twilio;
+import com.twilio.rest.api.v2010.account.Message;
+import com.twilio.type.PhoneNumber;
+
+
+public class TwilioOtpSender implements OtpSender {
+
+    private final PhoneNumber fromPhoneNumber;
+
+
+    public TwilioOtpSender(String accountSid, String authToken, String fromPhoneNumber) {
+        Twilio.init(accountSid, authToken);
+        this.fromPhoneNumber = new PhoneNumber(fromPhoneNumber);
+    }
+
+
+    @Override
+    public void send(String toPhoneNumber, String messageBody) {
+        Message message = Message.creator(
+                new PhoneNumber(toPhoneNumber),
+                fromPhoneNumber,
+                messageBody
+        ).create();
+
+        System.out.println("OTP SMS sent successfully! SID: " + message.getSid());
+    }
+}
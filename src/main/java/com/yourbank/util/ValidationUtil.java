@@ -26,6 +26,11 @@ public class ValidationUtil {
     );
 
 
+    private static final Pattern ACCOUNT_NUMBER_PATTERN = Pattern.compile(
+            "^[0-9]{12}$"
+    );
+
+
     private static final Pattern PHONE_PATTERN = Pattern.compile(
             "^[6-9][0-9]{9}$"
     );
@@ -69,4 +74,30 @@ public class ValidationUtil {
 
         return hasNumber && hasSpecial;
     }
-}
\ No newline at end of file
+
+
+    /**
+     * 12 digits whose last digit is the Luhn check digit of the first 11, so single-digit typos and
+     * most adjacent swaps are caught without a database lookup.
+     */
+    public static boolean isValidAccountNumber(String accountNumber) {
+        if (accountNumber == null || !ACCOUNT_NUMBER_PATTERN.matcher(accountNumber).matches()) return false;
+        return luhnCheckDigit(accountNumber.substring(0, 11)) == accountNumber.charAt(11) - '0';
+    }
+
+
+    public static int luhnCheckDigit(String digits) {
+        int sum = 0;
+        boolean doubleIt = true;
+        for (int i = digits.length() - 1; i >= 0; i--) {
+            int digit = digits.charAt(i) - '0';
+            if (doubleIt) {
+                digit *= 2;
+                if (digit > 9) digit -= 9;
+            }
+            sum += digit;
+            doubleIt = !doubleIt;
+        }
+        return (10 - sum % 10) % 10;
+    }
+}
@@ -0,0 +1,53 @@
+-- Base schema as used by the DAOs. Safe to run against a database whose tables were created by hand.
+
+CREATE TABLE IF NOT EXISTS users (
+    account_number      VARCHAR(12)   NOT NULL,
+    holder_name         VARCHAR(100)  NOT NULL,
+    password_hash       VARCHAR(60)   NOT NULL,
+    email               VARCHAR(255)  NOT NULL,
+    phone_number        VARCHAR(20)   NOT NULL,
+    full_address        VARCHAR(500),
+    pan_card_number     VARCHAR(10),
+    aadhar_card_number  VARCHAR(12),
+    ifsc_code           VARCHAR(11),
+    account_type        VARCHAR(20)   NOT NULL,
+    security_level      VARCHAR(20)   NOT NULL DEFAULT 'STANDARD',
+    account_status      VARCHAR(20)   NOT NULL DEFAULT 'ACTIVE',
+    balance             DECIMAL(15,2) NOT NULL DEFAULT 0.00,
+    created_at          DATETIME      NOT NULL,
+    PRIMARY KEY (account_number)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS admins (
+    admin_id            VARCHAR(64)   NOT NULL,
+    username            VARCHAR(50)   NOT NULL,
+    password_hash       VARCHAR(60)   NOT NULL,
+    email               VARCHAR(255)  NOT NULL,
+    phone_number        VARCHAR(20),
+    role                VARCHAR(50),
+    assigned_bank       VARCHAR(100),
+    bank_branch_ifsc    VARCHAR(11),
+    PRIMARY KEY (admin_id),
+    UNIQUE KEY uk_admins_username (username)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS transactions (
+    tx_id               VARCHAR(36)   NOT NULL,
+    tx_type             VARCHAR(10)   NOT NULL,
+    amount              DECIMAL(15,2) NOT NULL,
+    from_account_number VARCHAR(12),
+    to_account_number   VARCHAR(12),
+    created_at          DATETIME(6)   NOT NULL,
+    PRIMARY KEY (tx_id)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS payees (
+    payee_id              INT           NOT NULL AUTO_INCREMENT,
+    owner_account_number  VARCHAR(12)   NOT NULL,
+    payee_name            VARCHAR(100)  NOT NULL,
+    payee_account_number  VARCHAR(12)   NOT NULL,
+    payee_ifsc_code       VARCHAR(11)   NOT NULL,
+    PRIMARY KEY (payee_id),
+    UNIQUE KEY uk_payees_owner_payee (owner_account_number, payee_account_number),
+    CONSTRAINT fk_payees_owner FOREIGN KEY (owner_account_number) REFERENCES users (account_number)
+) ENGINE=InnoDB;
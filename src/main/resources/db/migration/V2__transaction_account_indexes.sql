@@ -0,0 +1,4 @@
+-- Account history is read as two range scans (outgoing and incoming), newest first.
+-- InnoDB appends the primary key (tx_id) to every secondary index, which also covers the keyset tie-break.
+CREATE INDEX idx_transactions_from_created ON transactions (from_account_number, created_at);
+CREATE INDEX idx_transactions_to_created ON transactions (to_account_number, created_at);
@@ -0,0 +1,7 @@
+-- Optimistic locking counter for AccountDao.updateAccount.
+ALTER TABLE users ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+-- Last line of defence behind the guarded debit in AccountDao.debitBalance.
+ALTER TABLE users ADD CONSTRAINT chk_users_balance_non_negative CHECK (balance >= 0);
+
+ALTER TABLE transactions ADD CONSTRAINT chk_transactions_amount_positive CHECK (amount > 0);
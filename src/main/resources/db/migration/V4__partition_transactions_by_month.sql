@@ -0,0 +1,23 @@
+-- Monthly range partitions on created_at. Old months can be archived or dropped as a whole partition,
+-- and date-bounded scans only touch the months they need.
+-- MySQL requires the partitioning column in every unique key, so created_at joins the primary key.
+-- SchemaMigrator splits p_future at startup to keep upcoming months created ahead of time.
+
+ALTER TABLE transactions DROP PRIMARY KEY, ADD PRIMARY KEY (tx_id, created_at);
+
+ALTER TABLE transactions PARTITION BY RANGE COLUMNS (created_at) (
+    PARTITION p_history VALUES LESS THAN ('2026-01-01'),
+    PARTITION p2026_01 VALUES LESS THAN ('2026-02-01'),
+    PARTITION p2026_02 VALUES LESS THAN ('2026-03-01'),
+    PARTITION p2026_03 VALUES LESS THAN ('2026-04-01'),
+    PARTITION p2026_04 VALUES LESS THAN ('2026-05-01'),
+    PARTITION p2026_05 VALUES LESS THAN ('2026-06-01'),
+    PARTITION p2026_06 VALUES LESS THAN ('2026-07-01'),
+    PARTITION p2026_07 VALUES LESS THAN ('2026-08-01'),
+    PARTITION p2026_08 VALUES LESS THAN ('2026-09-01'),
+    PARTITION p2026_09 VALUES LESS THAN ('2026-10-01'),
+    PARTITION p2026_10 VALUES LESS THAN ('2026-11-01'),
+    PARTITION p2026_11 VALUES LESS THAN ('2026-12-01'),
+    PARTITION p2026_12 VALUES LESS THAN ('2027-01-01'),
+    PARTITION p_future VALUES LESS THAN (MAXVALUE)
+);
@@ -0,0 +1,13 @@
+-- tx_id becomes the 16 raw bytes of the UUID instead of its 36-character text form.
+-- New IDs are UUIDv7 (time-ordered), so inserts append to the end of the primary key.
+-- Existing random UUIDv4 IDs are converted in place and keep their identity.
+
+ALTER TABLE transactions ADD COLUMN tx_id_bin BINARY(16) NULL FIRST;
+
+UPDATE transactions SET tx_id_bin = UNHEX(REPLACE(tx_id, '-', ''));
+
+ALTER TABLE transactions
+    DROP PRIMARY KEY,
+    DROP COLUMN tx_id,
+    CHANGE COLUMN tx_id_bin tx_id BINARY(16) NOT NULL,
+    ADD PRIMARY KEY (tx_id, created_at);
@@ -0,0 +1,11 @@
+-- Hi/lo source for AccountNumberAllocator. Each node reserves a block of values with a single
+-- UPDATE ... LAST_INSERT_ID(...) and hands them out from memory. Values are the first 11 digits of an
+-- account number; the 12th digit is a Luhn check digit.
+
+CREATE TABLE sequences (
+    name        VARCHAR(50) NOT NULL,
+    next_value  BIGINT      NOT NULL,
+    PRIMARY KEY (name)
+) ENGINE=InnoDB;
+
+INSERT INTO sequences (name, next_value) VALUES ('account_number', 10000000000);
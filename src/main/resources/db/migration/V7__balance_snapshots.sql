@@ -0,0 +1,15 @@
+-- Opening balances written by LedgerCompactor. A row holds an account's balance as of cutoff_at, i.e. after
+-- every ledger entry created before it, so a balance can be verified by replaying only later entries.
+-- Entries older than the newest cutoff may have been archived and deleted from transactions.
+
+CREATE TABLE balance_snapshots (
+    account_number  VARCHAR(12)   NOT NULL,
+    cutoff_at       DATETIME(6)   NOT NULL,
+    balance         DECIMAL(15,2) NOT NULL,
+    created_at      DATETIME(6)   NOT NULL,
+    PRIMARY KEY (account_number, cutoff_at),
+    KEY idx_balance_snapshots_cutoff (cutoff_at)
+) ENGINE=InnoDB;
+
+-- Compaction reads and deletes the oldest entries across all accounts.
+CREATE INDEX idx_transactions_created ON transactions (created_at);
@@ -0,0 +1,241 @@
+package com.yourbank.dao;
+
+import com.yourbank.dao.memory.MemoryStorageEngine;
+import com.yourbank.exception.OptimisticLockException;
+import com.yourbank.model.Account;
+import com.yourbank.model.Account.AccountStatus;
+import com.yourbank.model.Money;
+import com.yourbank.util.Metrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+
+class CachedAccountDaoTest {
+
+    private static final int ACCOUNTS = 20;
+
+    private MemoryStorageEngine engine;
+    private AccountDao database;
+    private CachedAccountDao cached;
+    private final List<String> accountNumbers = new ArrayList<>();
+    private final AtomicReference<Money> balanceBeforeTransaction = new AtomicReference<>();
+
+
+    @BeforeEach
+    void setUp() throws Exception {
+        engine = new MemoryStorageEngine(null, false, 0);
+        database = engine.accounts();
+        cached = new CachedAccountDao(readCommitted(database), engine, 1000, 60);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Account account = new Account();
+            account.setAccountNumber(String.valueOf(100000000000L + i));
+            account.setHolderName("Holder " + i);
+            account.setAccountStatus(AccountStatus.ACTIVE);
+            account.setBalance(Money.ZERO);
+            account.setCreatedAt(LocalDateTime.now());
+            cached.createAccount(account);
+            accountNumbers.add(account.getAccountNumber());
+        }
+    }
+
+
+    @AfterEach
+    void tearDown() {
+        engine.close();
+    }
+
+
+    @Test
+    void hitsAreCopiesOfTheStoredAccount() throws Exception {
+        String accountNumber = accountNumbers.get(0);
+        Account first = cached.findAccountByNumber(accountNumber);
+        first.setHolderName("Changed by the caller");
+
+        Account second = cached.findAccountByNumber(accountNumber);
+        assertNotSame(first, second);
+        assertEquals("Holder 0", second.getHolderName());
+    }
+
+
+    @Test
+    void balanceChangesAreVisibleThroughTheCache() throws Exception {
+        String accountNumber = accountNumbers.get(0);
+        cached.findAccountByNumber(accountNumber);
+
+        cached.creditBalance(accountNumber, Money.parse("25.00"));
+        cached.debitBalance(accountNumber, Money.parse("10.00"));
+
+        assertEquals(Money.parse("15.00"), cached.findAccountByNumber(accountNumber).getBalance());
+    }
+
+
+    @Test
+    void balanceChangesKeepTheRestOfTheEntryCached() throws Exception {
+        String accountNumber = accountNumbers.get(0);
+        cached.findAccountByNumber(accountNumber);
+        long misses = Metrics.get("cache.accounts.misses");
+
+        cached.creditBalance(accountNumber, Money.parse("5.00"));
+
+        assertEquals(AccountStatus.ACTIVE, cached.findAccountStatus(accountNumber));
+        assertEquals(Money.parse("5.00"), cached.findAccountByNumber(accountNumber).getBalance());
+        assertEquals(misses, Metrics.get("cache.accounts.misses"));
+    }
+
+
+    @Test
+    void readerDuringAnOpenTransactionDoesNotKeepTheOldBalance() throws Exception {
+        String accountNumber = accountNumbers.get(0);
+        cached.findAccountByNumber(accountNumber);
+
+        balanceBeforeTransaction.set(database.findBalance(accountNumber));
+        engine.beginTransaction(-1);
+        try {
+            cached.creditBalance(accountNumber, Money.parse("25.00"));
+            ExecutorService reader = Executors.newSingleThreadExecutor();
+            try {
+                Account seen = reader.submit(() -> cached.findAccountByNumber(accountNumber)).get();
+                assertEquals(Money.ZERO, seen.getBalance());
+            } finally {
+                reader.shutdownNow();
+            }
+            engine.commitTransaction();
+        } finally {
+            balanceBeforeTransaction.set(null);
+            engine.endTransaction();
+        }
+
+        assertEquals(Money.parse("25.00"), cached.findAccountByNumber(accountNumber).getBalance());
+    }
+
+
+    @Test
+    void readsInsideARolledBackTransactionAreNotCached() throws Exception {
+        String accountNumber = accountNumbers.get(0);
+        cached.findAccountByNumber(accountNumber);
+
+        engine.beginTransaction(-1);
+        try {
+            cached.creditBalance(accountNumber, Money.parse("25.00"));
+            assertEquals(Money.parse("25.00"), cached.findAccountByNumber(accountNumber).getBalance());
+            engine.rollbackTransaction();
+        } finally {
+            engine.endTransaction();
+        }
+
+        assertEquals(Money.ZERO, cached.findAccountByNumber(accountNumber).getBalance());
+    }
+
+
+    @Test
+    void staysCoherentUnderConcurrentWrites() throws Exception {
+        int writers = 4;
+        int readers = 4;
+        int writesPerWriter = 2000;
+        AtomicBoolean writing = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(writers + readers);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < writers; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int n = 0; n < writesPerWriter; n++) {
+                        String accountNumber = accountNumbers.get(random.nextInt(ACCOUNTS));
+                        if (random.nextBoolean()) {
+                            cached.creditBalance(accountNumber, Money.ofMinor(random.nextLong(1, 1000)));
+                        } else {
+                            toggleStatus(accountNumber);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (int i = 0; i < readers; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (writing.get()) {
+                        String accountNumber = accountNumbers.get(random.nextInt(ACCOUNTS));
+                        cached.findAccountByNumber(accountNumber);
+                        cached.findAccountStatus(accountNumber);
+                    }
+                    return null;
+                }));
+            }
+
+            start.countDown();
+            for (int i = 0; i < writers; i++) {
+                futures.get(i).get();
+            }
+            writing.set(false);
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (String accountNumber : accountNumbers) {
+            Account stored = database.findAccountByNumber(accountNumber);
+            Account seen = cached.findAccountByNumber(accountNumber);
+            assertEquals(stored.getAccountStatus(), seen.getAccountStatus(), "status of " + accountNumber);
+            assertEquals(stored.getAccountStatus(), cached.findAccountStatus(accountNumber), "status of " + accountNumber);
+            assertEquals(stored.getVersion(), seen.getVersion(), "version of " + accountNumber);
+            assertEquals(stored.getBalance(), seen.getBalance(), "balance of " + accountNumber);
+        }
+    }
+
+
+    // The memory engine makes other threads wait for a transaction. MySQL lets them read the last committed
+    // balance instead, so while balanceBeforeTransaction is set, threads outside the transaction are given that.
+    private AccountDao readCommitted(AccountDao accounts) {
+        return (AccountDao) Proxy.newProxyInstance(AccountDao.class.getClassLoader(), new Class<?>[] {AccountDao.class},
+                (proxy, method, args) -> {
+                    Money before = balanceBeforeTransaction.get();
+                    if (before != null && method.getName().equals("findBalance") && !engine.isTransactionActive()) {
+                        return before;
+                    }
+                    try {
+                        return method.invoke(accounts, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+
+    // A read-modify-write with the optimistic lock, as the service layer does it.
+    private void toggleStatus(String accountNumber) throws Exception {
+        while (true) {
+            Account account = database.findAccountByNumber(accountNumber);
+            account.setAccountStatus(account.getAccountStatus() == AccountStatus.ACTIVE
+                    ? AccountStatus.FROZEN : AccountStatus.ACTIVE);
+            try {
+                cached.updateAccount(account);
+                return;
+            } catch (OptimisticLockException e) {
+                // Lost the race to another writer; read again.
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.yourbank.dao.memory;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class WriteAheadLogTest {
+
+    private static final List<String> FRAMES = List.of("first", "second", "third");
+    // File header, then [length][crc] and the payload of each frame.
+    private static final long SECOND_FRAME = 8 + 8 + "first".length();
+    private static final long THIRD_FRAME = SECOND_FRAME + 8 + "second".length();
+
+    @TempDir
+    Path directory;
+
+
+    @Test
+    void replaysEveryFrame() throws Exception {
+        Path file = writeLog();
+
+        assertEquals(FRAMES, replay(file));
+    }
+
+
+    @Test
+    void cutsOffATornLastFrame() throws Exception {
+        Path file = writeLog();
+        long size = Files.size(file);
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.setLength(size - 2);
+        }
+
+        assertEquals(FRAMES.subList(0, 2), replay(file));
+        assertEquals(THIRD_FRAME, Files.size(file));
+    }
+
+
+    @Test
+    void cutsOffALastFrameWithABadChecksum() throws Exception {
+        Path file = writeLog();
+        flipByte(file, THIRD_FRAME + 8);
+
+        assertEquals(FRAMES.subList(0, 2), replay(file));
+        assertEquals(THIRD_FRAME, Files.size(file));
+    }
+
+
+    @Test
+    void refusesToStartOnACorruptMiddleFrame() throws Exception {
+        Path file = writeLog();
+        long size = Files.size(file);
+        flipByte(file, SECOND_FRAME + 8);
+
+        IOException e = assertThrows(IOException.class, () -> replay(file));
+        assertTrue(e.getMessage().contains("offset " + SECOND_FRAME), e.getMessage());
+        assertEquals(size, Files.size(file));
+    }
+
+
+    private Path writeLog() throws IOException {
+        Path file = directory.resolve("ledger.wal");
+        try (WriteAheadLog wal = new WriteAheadLog(file, true, 0)) {
+            wal.replay(frame -> {});
+            long position = 0;
+            for (String frame : FRAMES) {
+                byte[] payload = frame.getBytes(StandardCharsets.UTF_8);
+                position = wal.append(payload, payload.length);
+            }
+            wal.awaitDurable(position);
+        }
+        return file;
+    }
+
+
+    private static List<String> replay(Path file) throws IOException {
+        List<String> frames = new ArrayList<>();
+        try (WriteAheadLog wal = new WriteAheadLog(file, true, 0)) {
+            wal.replay(frame -> frames.add(new String(frame.readAllBytes(), StandardCharsets.UTF_8)));
+        }
+        return frames;
+    }
+
+
+    private static void flipByte(Path file, long position) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(position);
+            int b = raf.read();
+            raf.seek(position);
+            raf.write(b ^ 0xFF);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.yourbank.service;
+
+import com.yourbank.dao.memory.MemoryStorageEngine;
+import com.yourbank.model.Account;
+import com.yourbank.model.Account.AccountStatus;
+import com.yourbank.model.Money;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+
+class GroupCommitCoordinatorTest {
+
+    private static final String ACCOUNT_NUMBER = "100000000000";
+
+    private MemoryStorageEngine engine;
+    private GroupCommitCoordinator coordinator;
+
+
+    @BeforeEach
+    void setUp() throws Exception {
+        engine = new MemoryStorageEngine(null, false, 0);
+        // A long window and a batch of two, so both movements below are committed as one group.
+        coordinator = new GroupCommitCoordinator(engine, engine.transactions(), new TransactionTemplate(engine, 3, 1),
+                5000, 2);
+
+        Account account = new Account();
+        account.setAccountNumber(ACCOUNT_NUMBER);
+        account.setHolderName("Holder");
+        account.setAccountStatus(AccountStatus.ACTIVE);
+        account.setBalance(Money.ZERO);
+        account.setCreatedAt(LocalDateTime.now());
+        engine.accounts().createAccount(account);
+    }
+
+
+    @AfterEach
+    void tearDown() {
+        coordinator.close();
+        engine.close();
+    }
+
+
+    @Test
+    void runtimeFailureOnlyFailsItsOwnMovement() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Money> failing = executor.submit(() -> coordinator.submit(ledgerEntries -> {
+                engine.accounts().creditBalance(ACCOUNT_NUMBER, Money.parse("5.00"));
+                throw new ArithmeticException("overflow");
+            }));
+            Future<Money> succeeding = executor.submit(() -> coordinator.submit(ledgerEntries ->
+                    engine.accounts().creditBalance(ACCOUNT_NUMBER, Money.parse("7.00"))));
+
+            ExecutionException failure = assertThrows(ExecutionException.class, failing::get);
+            assertInstanceOf(ArithmeticException.class, failure.getCause());
+            assertEquals(Money.parse("7.00"), succeeding.get());
+            assertEquals(Money.parse("7.00"), engine.accounts().findBalance(ACCOUNT_NUMBER));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.yourbank.service;
+
+import com.yourbank.dao.StorageEngine;
+import com.yourbank.exception.InsufficientFundsException;
+import com.yourbank.model.Account;
+import com.yourbank.model.Money;
+import com.yourbank.util.Metrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Runs on the engine chosen by {@code STORAGE_ENGINE}, the in-memory one by default. The memory engine serialises
+ * all writers behind one lock, so to exercise real row locks and deadlock retries run it against MySQL as well:
+ * {@code mvn test -Dtest=TransferConcurrencyTest -DSTORAGE_ENGINE=jdbc -DDB_URL=... -DDB_USER=... -DDB_PASSWORD=...}.
+ */
+class TransferConcurrencyTest {
+
+    private static final Money OPENING_DEPOSIT = Money.parse("1000.00");
+
+    private StorageEngine engine;
+    private AccountManager manager;
+
+
+    @BeforeEach
+    void setUp() {
+        engine = StorageEngine.fromConfiguration();
+    }
+
+
+    @AfterEach
+    void tearDown() {
+        engine.close();
+    }
+
+
+    // 0 runs each deposit and withdrawal in its own transaction, 2 batches them through the group committer.
+    @ParameterizedTest(name = "group commit window {0}ms")
+    @ValueSource(ints = {0, 2})
+    void concurrentDepositsWithdrawalsAndTransfersConserveMoney(int groupCommitWindowMillis) throws Exception {
+        manager = newManager(groupCommitWindowMillis);
+        List<Account> accounts = openAccounts(10);
+        int threads = 8;
+        int operationsPerThread = 500;
+        AtomicLong deposited = new AtomicLong();
+        AtomicLong withdrawn = new AtomicLong();
+        AtomicLong deposits = new AtomicLong();
+        AtomicLong withdrawals = new AtomicLong();
+        AtomicLong transfers = new AtomicLong();
+        long batchesBefore = Metrics.get("groupcommit.batches");
+
+        runConcurrently(threads, () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < operationsPerThread; i++) {
+                Account from = accounts.get(random.nextInt(accounts.size()));
+                Money amount = Money.ofMinor(random.nextLong(1, 5000));
+                try {
+                    switch (random.nextInt(3)) {
+                        case 0 -> {
+                            manager.deposit(copyOf(from), amount);
+                            deposited.addAndGet(amount.getMinorUnits());
+                            deposits.incrementAndGet();
+                        }
+                        case 1 -> {
+                            manager.withdraw(copyOf(from), amount);
+                            withdrawn.addAndGet(amount.getMinorUnits());
+                            withdrawals.incrementAndGet();
+                        }
+                        default -> {
+                            Account to = accounts.get(random.nextInt(accounts.size()));
+                            if (to == from) {
+                                continue;
+                            }
+                            manager.transfer(copyOf(from), to.getAccountNumber(), amount);
+                            transfers.incrementAndGet();
+                        }
+                    }
+                } catch (InsufficientFundsException e) {
+                    // Expected now and then; the balance check is part of what is under test.
+                }
+            }
+            return null;
+        });
+
+        if (groupCommitWindowMillis > 0) {
+            assertTrue(Metrics.get("groupcommit.batches") > batchesBefore, "no deposit or withdrawal went through a group");
+        }
+        long expectedTotal = OPENING_DEPOSIT.getMinorUnits() * accounts.size() + deposited.get() - withdrawn.get();
+        assertEquals(expectedTotal, totalBalance(accounts).getMinorUnits());
+        // Every opening deposit, deposit and withdrawal is one ledger row; a transfer shows up on both accounts.
+        assertEquals(accounts.size() + deposits.get() + withdrawals.get() + 2 * transfers.get(), ledgerEntries(accounts));
+        for (Account account : accounts) {
+            assertTrue(manager.verifyAccountBalance(account.getAccountNumber()).matches(),
+                    "ledger does not reconcile for " + account.getAccountNumber());
+        }
+    }
+
+
+    @Test
+    void opposingTransfersCompleteWithoutDeadlock() throws Exception {
+        manager = newManager(0);
+        List<Account> accounts = openAccounts(2);
+        Account a = accounts.get(0);
+        Account b = accounts.get(1);
+        // Each side can send its whole opening balance even if the other has not sent anything back yet.
+        int transfers = 1000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> forward = executor.submit(() -> transferRepeatedly(a, b, transfers));
+            Future<?> backward = executor.submit(() -> transferRepeatedly(b, a, transfers));
+            assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+                forward.get();
+                backward.get();
+            });
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(OPENING_DEPOSIT.getMinorUnits() * 2, totalBalance(accounts).getMinorUnits());
+        assertEquals(OPENING_DEPOSIT, engine.accounts().findBalance(a.getAccountNumber()));
+        assertEquals(2 + 2 * 2 * transfers, ledgerEntries(accounts));
+    }
+
+
+    private AccountManager newManager(int groupCommitWindowMillis) {
+        System.setProperty("LEDGER_GROUP_COMMIT_WINDOW_MS", String.valueOf(groupCommitWindowMillis));
+        try {
+            return new AccountManager(engine);
+        } finally {
+            System.clearProperty("LEDGER_GROUP_COMMIT_WINDOW_MS");
+        }
+    }
+
+
+    private Void transferRepeatedly(Account from, Account to, int count) throws Exception {
+        Account holder = copyOf(from);
+        for (int i = 0; i < count; i++) {
+            manager.transfer(holder, to.getAccountNumber(), Money.ofMinor(100));
+        }
+        return null;
+    }
+
+
+    private List<Account> openAccounts(int count) throws Exception {
+        List<Account> accounts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Account account = manager.createAccount("Holder " + i, "holder" + i + "@example.com", "Passw0rd!",
+                    String.valueOf(9000000000L + i), "Street " + i, "", "", "SBIN0001234",
+                    Account.AccountType.SAVINGS, Account.SecurityLevel.STANDARD);
+            manager.deposit(account, OPENING_DEPOSIT);
+            accounts.add(account);
+        }
+        return accounts;
+    }
+
+
+    private Money totalBalance(List<Account> accounts) throws Exception {
+        Money total = Money.ZERO;
+        for (Account account : accounts) {
+            total = total.plus(engine.accounts().findBalance(account.getAccountNumber()));
+        }
+        return total;
+    }
+
+
+    private long ledgerEntries(List<Account> accounts) throws Exception {
+        AtomicLong entries = new AtomicLong();
+        for (Account account : accounts) {
+            engine.transactions().streamTransactionsForAccount(account.getAccountNumber(), tx -> entries.incrementAndGet());
+        }
+        return entries.get();
+    }
+
+
+    private static void runConcurrently(int threads, Callable<Void> work) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(work));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+
+    // Each thread holds its own Account, as each session does.
+    private static Account copyOf(Account account) {
+        Account copy = new Account();
+        copy.setAccountNumber(account.getAccountNumber());
+        copy.setBalance(account.getBalance());
+        return copy;
+    }
+}
@@ -0,0 +1,42 @@
+package com.yourbank.util;
+
+import com.yourbank.exception.ValidationException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class OtpDeliveryQueueTest {
+
+    private static final String PHONE = "+919000000001";
+
+
+    @Test
+    void fullQueueDoesNotUseUpTheRateLimit() {
+        OtpDeliveryQueue queue = new OtpDeliveryQueue((to, body) -> {}, 1, 0, 1, 1, 60_000);
+        try {
+            assertRefusedAsBusy(queue);
+            assertRefusedAsBusy(queue);
+        } finally {
+            queue.shutdown();
+        }
+    }
+
+
+    @Test
+    void rejectedMessageGivesItsSlotBack() {
+        OtpDeliveryQueue queue = new OtpDeliveryQueue((to, body) -> {}, 1, 100, 1, 1, 60_000);
+        queue.shutdown();
+
+        assertRefusedAsBusy(queue);
+        assertRefusedAsBusy(queue);
+    }
+
+
+    // "Busy" rather than "too many codes": the number's budget was not touched.
+    private static void assertRefusedAsBusy(OtpDeliveryQueue queue) {
+        ValidationException e = assertThrows(ValidationException.class, () -> queue.enqueue(PHONE, "code"));
+        assertTrue(e.getMessage().startsWith("Could not send OTP"), e.getMessage());
+    }
+}
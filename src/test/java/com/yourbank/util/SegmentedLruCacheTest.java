@@ -0,0 +1,49 @@
+package com.yourbank.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class SegmentedLruCacheTest {
+
+    @Test
+    void neverHoldsMoreThanMaxEntriesAcrossShards() {
+        SegmentedLruCache<Integer, String> cache = new SegmentedLruCache<>("test.bounded", 1000, 60, TimeUnit.SECONDS);
+        for (int i = 0; i < 10_000; i++) {
+            cache.put(i, "value " + i);
+        }
+        assertTrue(cache.size() <= 1000, "size " + cache.size());
+    }
+
+
+    @Test
+    void scanDoesNotFlushEntriesHitTwice() {
+        SegmentedLruCache<Integer, String> cache = new SegmentedLruCache<>("test.scan", 100, 60, TimeUnit.SECONDS);
+        cache.put(-1, "hot");
+        cache.get(-1);
+        for (int i = 0; i < 10_000; i++) {
+            cache.put(i, "cold " + i);
+        }
+        assertEquals("hot", cache.get(-1));
+    }
+
+
+    @Test
+    void updateChangesOnlyLiveEntries() {
+        SegmentedLruCache<String, String> cache = new SegmentedLruCache<>("test.update", 100, 60, TimeUnit.SECONDS);
+        cache.put("a", "one");
+        long hits = Metrics.get("test.update.hits");
+
+        cache.update("a", value -> value + " and two");
+        cache.update("missing", value -> "should not appear");
+
+        assertEquals(hits, Metrics.get("test.update.hits"));
+        assertEquals("one and two", cache.get("a"));
+        assertNull(cache.get("missing"));
+    }
+}